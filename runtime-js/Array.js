@@ -1,21 +1,31 @@
 function $_Array(elems,$$targs$$) {
     $init$$_Array();
+    var t=$$targs$$.Element$Array;
+    var k=tarr$k(t);
+    if (k && elems && elems.$tk===k) {
+        //copy the buffer instead of boxing each element
+        var a=tarr$slice(elems,0,elems.length);
+        List({Element$List:t}, a);
+        return a.rt$(t);
+    }
     var e=[];
     if (!(elems === null || elems === undefined)) {
         var item;for(var iter=elems.iterator();(item=iter.next())!==getFinished();) {
             e.push(item);
         }
     }
-    var t=$$targs$$.Element$Array;
+    if (k)e=tarr$of(k,e,t);
     List({Element$List:t}, e);
     return e.rt$(t);
 }
 $_Array.deser$$=function(a,cm){
   var targ=cm.$$targs$$.Type$Class.a.Element$Array;
   var tam=a.getValue(OpenValue$jsint(lmp$(ex$,'$'),$_Array.$$.prototype.$prop$getSize),{Instance$getValue:{t:Integer}});
-  var b = new Array(tam);
+  var k=tarr$k(targ);
+  var b = k ? tarr$new(k,tam,targ) : new Array(tam);
   for (var i=0; i < tam; i++) {
-    b[i]=a.getElement(i,{Instance$getElement:targ});
+    var e=a.getElement(i,{Instance$getElement:targ});
+    b[i]=k ? k.unbox(e) : e;
   }
-  return b.rt$(targ);
+  return k ? b : b.rt$(targ);
 }
@@ -6,5 +6,6 @@ function(c){
     r.push(this[idx]);
     idx+=c;
   }
+  if (this.$tk)return tarr$raw(this.$tk,r,this._elemTarg());
   return r.rt$(this._elemTarg());
 }
@@ -1,3 +1,4 @@
 function(){
+  if (this.$tk)return tarr$slice(this,0,this.length);
   return this.slice(0);
 }
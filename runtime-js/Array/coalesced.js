@@ -1,3 +1,5 @@
+//the elements of a typed array are never null
+if (this.$tk)return tarr$slice(this,0,this.length);
 var a=[];
 for (var i=0;i<this.length;i++){
   if (nn$(this[i]))a.push(this[i]);
@@ -1,3 +1,4 @@
 function(f,$$$mptypes) {
-  return ArraySequence(this.map(f),{Element$ArraySequence:{t:$$$mptypes.Result$flatten}});
+  var a=this.$tk?tarr$boxed(this):this;
+  return ArraySequence(a.map(f),{Element$ArraySequence:{t:$$$mptypes.Result$flatten}});
 }
@@ -1,6 +1,7 @@
 function(elem) {
+    var k=this.$tk;
     for (var i=0; i<this.length; i++) {
-        if (elem.equals(this[i])) {
+        if (elem.equals(k?k.box(this[i]):this[i])) {
             return true;
         }
     }
@@ -5,14 +5,24 @@ function(other,srcpos,dstpos,length){
     if(dstpos===undefined)dstpos=0;
     var endpos=srcpos+length-1;
     if (srcpos<0||srcpos>=this.size||length<1||dstpos+length>other.size||endpos>=this.size)throw Exception("Array index out of bounds");
+    var src=this.$tk,dst=other.$tk;
+    if (src && src===dst) {
+      //the native copy handles overlapping ranges of the same buffer
+      src.c.prototype.set.call(other,tarr$view(this,srcpos,length),dstpos);
+      return;
+    }
+    var conv=src===dst?undefined:function(v){
+      if (src)v=src.box(v);
+      return dst?dst.unbox(v):v;
+    };
     if (other===this && dstpos>srcpos) {
       dstpos+=length-1;
       for (var i=endpos; i>=srcpos; i--) {
-        other[dstpos--]=this[i];
+        other[dstpos--]=conv?conv(this[i]):this[i];
       }
     } else {
       for (var i=srcpos;i<=endpos;i++) {
-        other[dstpos++]=this[i];
+        other[dstpos++]=conv?conv(this[i]):this[i];
       }
     }
 }
@@ -1 +1 @@
-return this.length>0 ? this[0] : null;
+return this.length>0 ? (this.$tk?this.$tk.box(this[0]):this[0]) : null;
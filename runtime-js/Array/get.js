@@ -2,5 +2,5 @@ function $_get(i){
   var e=this[i];
   if (e===undefined)
     return null;
-  return e;
+  return this.$tk?this.$tk.box(e):e;
 }
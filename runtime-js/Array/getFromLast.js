@@ -2,5 +2,5 @@ function getFromLast(i){
   var e=this[this.length-1-i];
   if (e===undefined)
     return null;
-  return e;
+  return this.$tk?this.$tk.box(e):e;
 }
@@ -1,7 +1,8 @@
 function() {
     var $idx$=0;
     var $arr$=this;
+    var $k$=this.$tk;
     return new for$iter(function() {
-        return ($idx$===$arr$.length) ? getFinished() : $arr$[$idx$++];
+        return ($idx$===$arr$.length) ? getFinished() : $k$ ? $k$.box($arr$[$idx$++]) : $arr$[$idx$++];
     },{Element$Iterable:this._elemTarg(),Absent$Iterable:{t:Null}});
 }
@@ -1 +1 @@
-return this.length>0 ? this[this.length-1] : null;
+return this.length>0 ? (this.$tk?this.$tk.box(this[this.length-1]):this[this.length-1]) : null;
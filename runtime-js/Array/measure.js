@@ -1,6 +1,9 @@
 function(from, len) {
     if (len <= 0) { return getEmpty(); }
     var stop = from + len;
+    if (this.$tk) {
+      return tarr$slice(this, (from>=0)?from:0, (stop>=0)?stop:0);
+    }
     var seq = this.slice((from>=0)?from:0, (stop>=0)?stop:0);
     return seq.rt$(this._elemTarg());
 }
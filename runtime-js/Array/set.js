@@ -1,5 +1,5 @@
 function(idx,elem) {
   if (idx >= 0 && idx < this.length) {
-    this[idx] = elem;
+    this[idx] = this.$tk ? this.$tk.unbox(elem) : elem;
   }
 }
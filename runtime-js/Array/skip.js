@@ -1,5 +1,6 @@
 function(c){
   if (c<=0)return this;
+  if (this.$tk)return tarr$slice(this,c,this.length);
   var r=this.slice(c);
   return r.rt$(this._elemTarg());
 }
@@ -1,4 +1,12 @@
 function(f) {
+  var k=this.$tk;
+  if (k) {
+    k.c.prototype.sort.call(this, function(a,b) {
+      var r = f(k.box(a),k.box(b));
+      return r===getLarger()?1:r===getSmaller()?-1:0;
+    });
+    return;
+  }
   this.sort(function(a,b) {
     var r = f(a,b);
     return r===getLarger()?1:r===getSmaller()?-1:0;
@@ -1,4 +1,5 @@
 function(c) {
+  if (this.$tk)return tarr$slice(this,0,c<=0?0:c);
   if (c<=0)return [].rt$(this._elemTarg());
   var r=this.slice(0,c);
   return r.rt$(this._elemTarg());
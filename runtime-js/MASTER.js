@@ -9,12 +9,12 @@
 //#COMPILE Iterable,Correspondence,Finished,Sequential,Sequence,Empty
 //#native Boolean
 //#native Callable
-//#COMPILE Binary,Usable,Destroyable,Obtainable,Comparable,Invertible,Summable,Ordinal,Enumerable,Numeric,Exponentiable,Integral,Scalable,Number,numbers.js,OverflowException,InitializationError,Resource,Ranged,Iterator,Collection,Category,List,Array,sequences.js,ArraySequence,Tuple,ChainedIterator,CycledIterator,Entry,Byte
+//#COMPILE Binary,Usable,Destroyable,Obtainable,Comparable,Invertible,Summable,Ordinal,Enumerable,Numeric,Exponentiable,Integral,Scalable,Number,numbers.js,OverflowException,InitializationError,Resource,Ranged,Iterator,Collection,Category,List,Array,sequences.js,typedarrays.js,ArraySequence,Tuple,ChainedIterator,CycledIterator,Pipeline,Entry,Byte
 //#Number
-//#COMPILE Set,Range,Span,Measure,Singleton,AssertionError,Map,String,strings.js,Character,StringBuilder
+//#COMPILE Set,Range,Span,Measure,Singleton,AssertionError,Map,HashTable,String,strings.js,Character,StringBuilder
 //#COMPILE any,byDecreasing,byIncreasing,byItem,byKey,count,emptyOrSingleton,curry,apply,comparing,functions
 //#COMPILE every,forItem,forKey,concatenate,expand,interleave,corresponding,loop,largest,max,min,smallest,sum,product,pairs,zip,unzip,print,nothing
-//#COMPILE identical,compose,shuffle,flatten,unflatten,plus,times,sort,and,or,not,arrayOfSize
+//#COMPILE identical,compose,shuffle,flatten,unflatten,plus,times,sort,forkJoin,parallel,and,or,not,arrayOfSize
 //#metamodel
 //#COMPILE Annotated,Annotation,ConstrainedAnnotation,OptionalAnnotation,SequencedAnnotation
 //#COMPILE meta/annotations,meta/metamodel,meta/optionalAnnotation,meta/sequencedAnnotations,modules.js,meta/modules
@@ -27,7 +27,7 @@
 //#COMPILE module,package,meta/package,meta/model/package,meta/declaration/package
 //#COMPILE process.js,process,language,system,operatingSystem,runtime,parseInteger,parseFloat,formatInteger,parseBoolean,className
 //Serialization
-//#COMPILE serialization/package,serialization/Deconstructed,serialization/Deconstructor,serialization/DeserializableReference,serialization/DeserializationContext,serialization/RealizableReference,serialization/Reference,serialization/SerializableReference,serialization/SerializationContext,serialization/serialization,serialization/deserialization,jsint/JsSerCtxt,jsint/JsDeserCtxt,jsint/DeserRefImpl,jsint/SerRefImpl
+//#COMPILE serialization/package,serialization/Deconstructed,serialization/Deconstructor,serialization/DeserializableReference,serialization/DeserializationContext,serialization/RealizableReference,serialization/Reference,serialization/SerializableReference,serialization/SerializationContext,serialization/serialization,serialization/deserialization,serialization/leakInstance,jsint/JsSerCtxt,jsint/JsDeserCtxt,jsint/DeserRefImpl,jsint/SerRefImpl
 
 function NatErr(e) {
     var that = new NatErr.$$;
@@ -1,13 +1,6 @@
 function(length) {
-    if (length >= this.size) {return this}
-    var count = 0;
-    var i = 0;
-    for (; i<this.length && count<length; ++i, ++count) {
-        if ((this.charCodeAt(i)&0xfc00) === 0xd800) {++i}
-    }
-    if (i >= this.length) {
-        this.codePoints = count;
-        return this;
-    }
-    return $_String(this.substr(0, i), count);
+    var idx = cpIndex$(this);
+    if (length >= idx.size) {return this}
+    if (length < 0) {length = 0}
+    return $_String(this.substring(0, cpOffset$(idx, length)), length);
 }
@@ -1,4 +1,4 @@
 if (this.codePoints===undefined) {
-  this.codePoints = countCodepoints(this);
+  this.codePoints = cpIndex$(this).size;
 }
 return this.codePoints;
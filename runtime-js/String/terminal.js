@@ -1,13 +1,6 @@
 function(length) {
-    if (length >= this.size) {return this}
-    var count = 0;
-    var i = this.length;
-    for (; i>0 && count<length; ++count) {
-        if ((this.charCodeAt(--i)&0xfc00) === 0xdc00) {--i}
-    }
-    if (i <= 0) {
-        this.codePoints = count;
-        return this;
-    }
-    return $_String(this.substr(i), count);
+    var idx = cpIndex$(this);
+    if (length >= idx.size) {return this}
+    if (length < 0) {length = 0}
+    return $_String(this.substring(cpOffset$(idx, idx.size-length)), length);
 }
@@ -1,9 +1,21 @@
 function arrayOfSize(size, elem, $$$mptypes) {
+    var t=$$$mptypes.Element$arrayOfSize;
+    var k=tarr$k(t);
+    if (k) {
+        var a=tarr$new(k,size>0?size:0,t);
+        var v=k.unbox(elem);
+        if (v!==0) {
+            for (var i=0; i<a.length; i++) {
+                a[i]=v;
+            }
+        }
+        return a;
+    }
     var elems = [];
     if (size>0) {
         for (var i=0; i<size; i++) {
             elems.push(elem);
         }
     }
-    return elems.rt$($$$mptypes.Element$arrayOfSize);
+    return elems.rt$(t);
 }
@@ -0,0 +1,4 @@
+//There are no threads to fork, so the tasks run in order
+function forkJoin(count,task) {
+  for (var i=0;i<count;i++)task(i);
+}
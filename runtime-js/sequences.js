@@ -5,8 +5,9 @@ arrprot$.ser$$=function(d){
     Arguments$AppliedClass:{t:'T',l:[{t:Iterable,a:{Element$Iterable:targ}}]}}));
   d.putTypeArgument(OpenTypeParam$jsint($_Array,'Element$Array'),typeLiteral$meta({Type$typeLiteral:targ}));
   d.putValue(OpenValue$jsint(lmp$(ex$,'$'),this.$prop$getSize),this.length,{Instance$putValue:{t:Integer}});
+  var k=this.$tk;
   for (var i=0; i < this.length; i++) {
-    d.putElement(i,this[i],{Instance$putElement:targ});
+    d.putElement(i,k?k.box(this[i]):this[i],{Instance$putElement:targ});
   }
 }
 var origArrToString = arrprot$.toString;
@@ -0,0 +1,4 @@
+function leakInstance$serialization(ref,$$$mptypes){
+  //the instance is only created when the reference is reconstructed
+  return ref.inst_===undefined ? ref.instance() : ref.inst_;
+}
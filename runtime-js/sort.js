@@ -0,0 +1,19 @@
+function sort(elems,$$$mptypes) {
+  var a=$_Array(elems,{Element$Array:$$$mptypes.Element$sort});
+  if (a.length===0) return getEmpty();
+  var k=a.$tk;
+  var cmp=function(x,y) {
+    if (k) {
+      x=k.box(x);
+      y=k.box(y);
+    }
+    var r=x.compare(y);
+    return r===getLarger()?1:r===getSmaller()?-1:0;
+  };
+  if (k) {
+    k.c.prototype.sort.call(a,cmp);
+  } else {
+    a.sort(cmp);
+  }
+  return ArraySequence(a,{Element$ArraySequence:$$$mptypes.Element$sort});
+}
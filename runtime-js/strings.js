@@ -25,12 +25,50 @@ StringIterator$proto.next = function() {
 }
 
 function countCodepoints(str) {
-    var count = 0;
-    for (var i=0; i<str.length; ++i) {
-        ++count;
-        if ((str.charCodeAt(i)&0xfc00) === 0xd800) {++i}
+    return cpIndex$(str).size;
+}
+//The code point index of a string: the offsets of the high surrogates
+//which start its surrogate pairs, in increasing order, so that code
+//point indexes and offsets are converted with a binary search. A string
+//without pairs, such as an ASCII string, is flagged as bmp and needs no
+//search at all. The index is built on first use, and kept on String
+//objects, or for primitive strings in a one-entry cache, since they
+//can't hold properties.
+function CodepointIndex$(str) {
+    var pairs = [];
+    for (var i=0; i<str.length-1; ++i) {
+        if ((str.charCodeAt(i)&0xfc00) === 0xd800) {pairs.push(i++)}
+    }
+    this.bmp = pairs.length === 0;
+    this.pairs = this.bmp ? null : pairs;
+    this.size = str.length - pairs.length;
+}
+var cpi$str, cpi$idx;
+function cpIndex$(str) {
+    if (typeof(str) === 'object') {
+        if (str._cpi === undefined) {str._cpi = new CodepointIndex$(str)}
+        return str._cpi;
+    }
+    if (cpi$str !== str) {
+        cpi$idx = new CodepointIndex$(str);
+        cpi$str = str;
+    }
+    return cpi$idx;
+}
+//The offset of the code point with the given index, which must be
+//between 0 and the size of the string
+function cpOffset$(idx, index) {
+    if (idx.bmp) {return index}
+    //the code point of pair k has index pairs[k]-k, which increases
+    //with k: count the pairs before the one we're looking for
+    var pairs = idx.pairs;
+    var lo = 0, hi = pairs.length;
+    while (lo < hi) {
+        var mid = (lo + hi) >>> 1;
+        if (pairs[mid] - mid < index) {lo = mid + 1}
+        else {hi = mid}
     }
-    return count;
+    return index + lo;
 }
 function codepointToString(cp) {
     if (cp <= 0xffff) {
@@ -0,0 +1,78 @@
+//Typed array backings for Array<Integer>, Array<Float> and Array<Byte>.
+//Integers and Floats are stored in a Float64Array, which holds every
+//Integer of runtime.integerSize bits exactly, and Bytes in a Uint8Array.
+//A typed array is still a Ceylon Array: its prototype is an object
+//whose prototype is Array.prototype, which supplies every member, and
+//whose $tk says how to box its elements into Ceylon values and unbox
+//them back. Members which touch the elements directly check this.$tk,
+//which plain arrays don't have.
+var tarr$ok=typeof(Float64Array)==='function' && typeof(Uint8Array)==='function'
+  && typeof(Object.setPrototypeOf)==='function';
+function tkind$(cons,box,unbox) {
+  var proto=Object.create(Array.prototype);
+  //these are getters of %TypedArray%.prototype, which we've taken
+  //out of the prototype chain
+  var tproto=Object.getPrototypeOf(cons.prototype);
+  ['length','buffer','byteOffset'].forEach(function(p){
+    Object.defineProperty(proto,p,Object.getOwnPropertyDescriptor(tproto,p));
+  });
+  var k={c:cons,p:proto,box:box,unbox:unbox};
+  Object.defineProperty(proto,'$tk',{value:k});
+  return k;
+}
+var tk$int,tk$flt,tk$byt;
+if (tarr$ok) {
+  tk$int=tkind$(Float64Array,function(v){return v;},function(e){return +e;});
+  tk$flt=tkind$(Float64Array,function(v){return Float(v);},function(e){return +e;});
+  tk$byt=tkind$(Uint8Array,function(v){return Byte(v);},function(e){return e.val$;});
+}
+//The typed kind for arrays of the given element type, if any
+function tarr$k(t) {
+  if (!tarr$ok || t===null || t===undefined || t.a!==undefined)return undefined;
+  if (t.t===Integer)return tk$int;
+  if (t.t===Float)return tk$flt;
+  if (t.t===Byte)return tk$byt;
+  return undefined;
+}
+//A new typed array of the given kind and length, filled with zeros
+function tarr$new(k,len,t) {
+  var a=new k.c(len);
+  Object.setPrototypeOf(a,k.p);
+  return a.rt$(t);
+}
+//A new typed array with the given unboxed elements
+function tarr$raw(k,raw,t) {
+  var a=tarr$new(k,raw.length,t);
+  for (var i=0;i<raw.length;i++)a[i]=raw[i];
+  return a;
+}
+//A new typed array with the given Ceylon values
+function tarr$of(k,elems,t) {
+  var a=tarr$new(k,elems.length,t);
+  for (var i=0;i<elems.length;i++)a[i]=k.unbox(elems[i]);
+  return a;
+}
+//A view of the elements of a typed array from the given index, sharing
+//its buffer, which the native typed array methods accept
+function tarr$view(a,from,len) {
+  var c=a.$tk.c;
+  return new c(a.buffer,a.byteOffset+from*c.BYTES_PER_ELEMENT,len);
+}
+//A copy of the elements of a typed array from the given index up to,
+//but not including, the other index, like slice()
+function tarr$slice(a,from,to) {
+  var k=a.$tk;
+  var len=a.length;
+  if (from<0)from=0;
+  if (to>len)to=len;
+  var r=tarr$new(k,to>from?to-from:0,a._elemTarg());
+  if (to>from)k.c.prototype.set.call(r,tarr$view(a,from,to-from));
+  return r;
+}
+//The Ceylon values of a typed array in a plain array
+function tarr$boxed(a) {
+  var k=a.$tk;
+  var r=new Array(a.length);
+  for (var i=0;i<r.length;i++)r[i]=k.box(a[i]);
+  return r;
+}
@@ -5,10 +5,11 @@ import static com.redhat.ceylon.compiler.java.runtime.model.TypeDescriptor.inter
 import static java.lang.System.arraycopy;
 import static java.util.Arrays.copyOfRange;
 
+import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.Comparator;
 
 import ceylon.language.impl.BaseIterable;
@@ -23,6 +24,8 @@ import ceylon.language.serialization.Deconstructor;
 
 import com.redhat.ceylon.compiler.java.Util;
 import com.redhat.ceylon.compiler.java.language.AbstractArrayIterable;
+import com.redhat.ceylon.compiler.java.language.AbstractCallable;
+import com.redhat.ceylon.compiler.java.language.ParallelArrays;
 import com.redhat.ceylon.compiler.java.metadata.Annotation;
 import com.redhat.ceylon.compiler.java.metadata.Annotations;
 import com.redhat.ceylon.compiler.java.metadata.Ceylon;
@@ -1364,7 +1367,49 @@ public final class Array<Element>
     public boolean contains(@Name("element") 
     @TypeInfo("ceylon.language::Object")
     java.lang.Object element) {
-        // FIXME Very inefficient for primitive types due to boxing
+        // search the underlying array directly when the 
+        // element has the same type as the elements of
+        // the array, so that nothing gets boxed
+        switch (elementType) {
+        case CeylonInteger:
+            if (element instanceof Integer) {
+                return ParallelArrays.contains(longArray, 
+                        ((Integer) element).value);
+            }
+            break;
+        case CeylonFloat:
+            if (element instanceof Float) {
+                return ParallelArrays.contains(doubleArray, 
+                        ((Float) element).value);
+            }
+            break;
+        case CeylonCharacter:
+            if (element instanceof Character) {
+                return ParallelArrays.contains(intArray, 
+                        ((Character) element).codePoint);
+            }
+            return false;
+        case CeylonByte:
+            if (element instanceof Byte) {
+                return ParallelArrays.contains(byteArray, 
+                        ((Byte) element).value);
+            }
+            return false;
+        case CeylonBoolean:
+            if (element instanceof Boolean) {
+                return ParallelArrays.contains(booleanArray, 
+                        ((Boolean) element).booleanValue());
+            }
+            return false;
+        case CeylonString:
+            if (element instanceof String) {
+                return ParallelArrays.contains(stringArray, 
+                        ((String) element).value);
+            }
+            return false;
+        default:
+            break;
+        }
         for (int i=0; i<size; i++) {
             Element elem = getFromFirst(i);
             if (elem != null && elem.equals(element)) {
@@ -1378,8 +1423,36 @@ public final class Array<Element>
     public long count(@Name("selecting")@FunctionalParameter("(element)") 
     @TypeInfo("ceylon.language::Callable<ceylon.language::Boolean,ceylon.language::Tuple<Element,Element,ceylon.language::Empty>>")
     Callable<? extends Boolean> selecting) {
-        // FIXME Very inefficient for primitive types due to boxing
         int count=0;
+        if (selecting instanceof AbstractCallable) {
+            // call the predicate without boxing the elements
+            AbstractCallable<?> predicate = (AbstractCallable<?>) selecting;
+            switch (elementType) {
+            case CeylonInteger:
+                for (int i=0; i<size; i++) {
+                    if (predicate.$call$boolean(longArray[i])) {
+                        count++;
+                    }
+                }
+                return count;
+            case CeylonFloat:
+                for (int i=0; i<size; i++) {
+                    if (predicate.$call$boolean(doubleArray[i])) {
+                        count++;
+                    }
+                }
+                return count;
+            case CeylonCharacter:
+                for (int i=0; i<size; i++) {
+                    if (predicate.$call$booleanChar(intArray[i])) {
+                        count++;
+                    }
+                }
+                return count;
+            default:
+            }
+        }
+        // FIXME Very inefficient for other primitive types due to boxing
         for (int i=0; i<size; i++) {
             Element elem = getFromFirst(i);
             if (elem != null && selecting.$call$(elem).booleanValue()) {
@@ -1643,52 +1716,188 @@ public final class Array<Element>
             @Name("comparing") @FunctionalParameter("(x,y)")
             @TypeInfo("ceylon.language::Callable<ceylon.language::Comparison,ceylon.language::Tuple<Element,Element,ceylon.language::Tuple<Element,Element,ceylon.language::Empty>>>") 
             final Callable<? extends Comparison> comparing) {
-        java.util.List<Element> list = 
-                new java.util.AbstractList<Element>() {
-            @Override
-            public Element get(int index) {
-                return unsafeItem(index);
-            }
-            @Override
-            public Element set(int index, Element element) {
-                // Strictly this method should return the element that was at 
-                // the given index, but that might require even more boxing 
-                // and in practice the return value
-                // doesn't seem to be used by the sorting algorithm
-                Array.this.set(index, element);
-                return null;
-            }
-            @Override
-            public int size() {
-                return (int)size;
-            }
-            @Override
-            public java.lang.Object[] toArray() {
-                if (array instanceof java.lang.Object[] &&
-                    !(array instanceof java.lang.String[])) {
-                    return (java.lang.Object[]) array;
-                }
-                else {
-                    int size = size();
-                    java.lang.Object[] result = 
-                            new java.lang.Object[size];
-                    for (int i=0; i<size; i++) {
-                        result[i] = unsafeItem(i);
+        if (comparing instanceof AbstractCallable && size > 1
+                && ((AbstractCallable<?>) comparing).$comparesPrimitives$()) {
+            // sort the underlying array without boxing the elements
+            final AbstractCallable<?> comparator = (AbstractCallable<?>) comparing;
+            switch (elementType) {
+            case CeylonInteger: {
+                final long[] scratch = new long[size];
+                new MergeSort(longArray, scratch) {
+                    @Override
+                    Comparison compare(int x, int y) {
+                        return comparator.$call$comparison(scratch[x], scratch[y]);
                     }
-                    return result;
-                }
+                    @Override
+                    void move(int from, int to) {
+                        longArray[to] = scratch[from];
+                    }
+                }.sort(0, size);
+                return;
+            }
+            case CeylonFloat: {
+                final double[] scratch = new double[size];
+                new MergeSort(doubleArray, scratch) {
+                    @Override
+                    Comparison compare(int x, int y) {
+                        return comparator.$call$comparison(scratch[x], scratch[y]);
+                    }
+                    @Override
+                    void move(int from, int to) {
+                        doubleArray[to] = scratch[from];
+                    }
+                }.sort(0, size);
+                return;
+            }
+            case CeylonCharacter: {
+                final int[] scratch = new int[size];
+                new MergeSort(intArray, scratch) {
+                    @Override
+                    Comparison compare(int x, int y) {
+                        return comparator.$call$comparisonChar(scratch[x], scratch[y]);
+                    }
+                    @Override
+                    void move(int from, int to) {
+                        intArray[to] = scratch[from];
+                    }
+                }.sort(0, size);
+                return;
+            }
+            default:
             }
-        };
-        Comparator<Element> comparator = 
-                new Comparator<Element>() {
+        }
+        sortElements(new Comparator<Element>() {
             public int compare(Element x, Element y) {
-                Comparison result = comparing.$call$(x, y);
-                if (result==larger_.get_()) return 1;
-                if (result==smaller_.get_()) return -1;
-                return 0;
+                return comparison(comparing.$call$(x, y));
+            }
+        });
+    }
+    
+    /**
+     * Sort this array in place according to the natural 
+     * ordering of its {@link Comparable} elements, without 
+     * going through a comparator {@link Callable}. Arrays of 
+     * {@code Integer}, {@code Float}, {@code Character} and 
+     * {@code String} are sorted directly on the underlying 
+     * Java array, without boxing any element, and in parallel
+     * if the array is large enough.
+     * 
+     * @see ParallelArrays
+     */
+    @Ignore
+    public void sortInPlaceNaturally() {
+        switch (elementType) {
+        case CeylonInteger:
+            ParallelArrays.sort(longArray);
+            break;
+        case CeylonFloat:
+            // -0.0 is ordered before 0.0, which are equal 
+            // according to Float.compare(), so the result 
+            // is still correctly sorted
+            ParallelArrays.sort(doubleArray);
+            break;
+        case CeylonCharacter:
+            ParallelArrays.sort(intArray);
+            break;
+        case CeylonString:
+            // String.compare() is java.lang.String.compareTo()
+            ParallelArrays.sort(stringArray);
+            break;
+        default:
+            sortElements(Array.<Element>naturalOrder());
+        }
+    }
+    
+    /**
+     * Sort the elements of the underlying array using the 
+     * given comparator. An {@code Object[]} is sorted 
+     * directly. Any other array is boxed exactly once into 
+     * a temporary {@code Object[]}, sorted, and then copied 
+     * back, rather than boxing both elements on every 
+     * comparison.
+     */
+    @SuppressWarnings("unchecked")
+    private void sortElements(Comparator<? super Element> comparator) {
+        if (objectArray!=null) {
+            Arrays.sort((Element[]) objectArray, comparator);
+        }
+        else {
+            java.lang.Object[] boxed = 
+                    new java.lang.Object[size];
+            for (int i=0; i<size; i++) {
+                boxed[i] = unsafeItem(i);
+            }
+            Arrays.sort((Element[]) boxed, comparator);
+            for (int i=0; i<size; i++) {
+                set(i, (Element) boxed[i]);
+            }
+        }
+    }
+    
+    /**
+     * A stable merge sort of an array of Integers, Floats or
+     * Characters, using the primitive entry points of a 
+     * comparator. Subclasses supply the only operations which
+     * depend on the type of the array: comparing two elements
+     * of the scratch array, and moving an element from the
+     * scratch array back into the array.
+     */
+    private static abstract class MergeSort {
+        private final java.lang.Object array;
+        private final java.lang.Object scratch;
+        
+        MergeSort(java.lang.Object array, java.lang.Object scratch) {
+            this.array = array;
+            this.scratch = scratch;
+        }
+        
+        /** Compares the elements at the given indexes of the scratch array */
+        abstract Comparison compare(int x, int y);
+        
+        /** Moves an element of the scratch array into the array */
+        abstract void move(int from, int to);
+        
+        /** Sorts the range [from, to) of the array */
+        void sort(int from, int to) {
+            if (to - from < 2) {
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            // sort each half of the array, then merge the 
+            // halves back into the array from the scratch array
+            sort(from, middle);
+            sort(middle, to);
+            System.arraycopy(array, from, scratch, from, to - from);
+            for (int i=from, left=from, right=middle; i<to; i++) {
+                if (right >= to || left < middle 
+                        && comparison(compare(left, right)) <= 0) {
+                    move(left++, i);
+                }
+                else {
+                    move(right++, i);
+                }
             }
-        };
-        Collections.<Element>sort(list, comparator);
+        }
+    }
+    
+    private static int comparison(Comparison result) {
+        if (result==larger_.get_()) return 1;
+        if (result==smaller_.get_()) return -1;
+        return 0;
+    }
+    
+    @SuppressWarnings("rawtypes")
+    private static final Comparator NATURAL_ORDER = 
+            new Comparator<Comparable<java.lang.Object>>() {
+        public int compare(Comparable<java.lang.Object> x, 
+                Comparable<java.lang.Object> y) {
+            return comparison(x.compare(y));
+        }
+    };
+    
+    @SuppressWarnings("unchecked")
+    private static <Element> Comparator<Element> naturalOrder() {
+        return NATURAL_ORDER;
     }
     
     private enum ArrayType {
@@ -1800,20 +2009,97 @@ public final class Array<Element>
         
     }
     
+    /**
+     * The members used by {@link #$serialize$} and 
+     * {@link #$deserialize$}, looked up the first time an 
+     * array is serialized or deserialized
+     */
+    @Ignore
+    private static final class SerializedMembers {
+        static final ceylon.language.meta.declaration.TypeParameter ELEMENT = 
+                ((GenericDeclaration)Metamodel.getOrCreateMetamodel(Array.class))
+                    .getTypeParameterDeclaration("Element");
+        static final ValueDeclaration SIZE = 
+                (ValueDeclaration)((ClassDeclaration)Metamodel.getOrCreateMetamodel(Array.class))
+                    .getMemberDeclaration(ValueDeclaration.$TypeDescriptor$, "size");
+        
+        static final MethodHandle SET_SIZE;
+        static final MethodHandle SET_ARRAY;
+        static final MethodHandle SET_OBJECT_ARRAY;
+        static final MethodHandle SET_LONG_ARRAY;
+        static final MethodHandle SET_DOUBLE_ARRAY;
+        static final MethodHandle SET_BYTE_ARRAY;
+        static final MethodHandle SET_INT_ARRAY;
+        static final MethodHandle SET_BOOLEAN_ARRAY;
+        static final MethodHandle SET_STRING_ARRAY;
+        static {
+            try {
+                MethodHandles.Lookup lookup = lookup();
+                SET_SIZE = Util.setter(lookup, "size");
+                SET_ARRAY = Util.setter(lookup, "array");
+                // all the typed arrays are set from an Object
+                MethodType type = MethodType.methodType(void.class, 
+                        Array.class, java.lang.Object.class);
+                SET_OBJECT_ARRAY = Util.setter(lookup, "objectArray").asType(type);
+                SET_LONG_ARRAY = Util.setter(lookup, "longArray").asType(type);
+                SET_DOUBLE_ARRAY = Util.setter(lookup, "doubleArray").asType(type);
+                SET_BYTE_ARRAY = Util.setter(lookup, "byteArray").asType(type);
+                SET_INT_ARRAY = Util.setter(lookup, "intArray").asType(type);
+                SET_BOOLEAN_ARRAY = Util.setter(lookup, "booleanArray").asType(type);
+                SET_STRING_ARRAY = Util.setter(lookup, "stringArray").asType(type);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+    }
+    
+    /** A lookup on Array, rather than on the calling nested class */
+    @Ignore
+    private static MethodHandles.Lookup lookup() {
+        return MethodHandles.lookup();
+    }
+    
+    /** 
+     * Whether the elements are held in an array of primitive 
+     * values, and so can be transferred in bulk by 
+     * {@link Deconstructor#putElements} and 
+     * {@link Deconstructed#getElements}, unless the serialization
+     * library was compiled before they were added 
+     */
+    @Ignore
+    private boolean hasPrimitiveElements() {
+        switch (elementType) {
+        case CeylonInteger:
+        case CeylonFloat:
+        case CeylonByte:
+        case CeylonCharacter:
+        case CeylonBoolean:
+            return true;
+        default:
+            return false;
+        }
+    }
+    
     @Ignore
     @Override
     public void $serialize$(Callable<? extends Deconstructor> deconstructor) {
         Deconstructor dtor = deconstructor.$call$(ceylon.language.meta.typeLiteral_.typeLiteral($getType$()));
         
-        ceylon.language.meta.declaration.TypeParameter elementTypeParameter = ((GenericDeclaration)Metamodel.getOrCreateMetamodel(Array.class)).getTypeParameterDeclaration("Element");
-        dtor.putTypeArgument(elementTypeParameter, Metamodel.getAppliedMetamodel(this.$reifiedElement));
-        
-        ValueDeclaration sizeAttribute = (ValueDeclaration)((ClassDeclaration)Metamodel.getOrCreateMetamodel(Array.class)).getMemberDeclaration(ceylon.language.meta.declaration.ValueDeclaration.$TypeDescriptor$, "size");
+        dtor.putTypeArgument(SerializedMembers.ELEMENT, Metamodel.getAppliedMetamodel(this.$reifiedElement));
         
         dtor.putValue(Integer.$TypeDescriptor$, 
-                sizeAttribute, 
+                SerializedMembers.SIZE, 
                 Integer.instance(getSize()));
         
+        if (hasPrimitiveElements()) {
+            try {
+                dtor.<Element>putElements(this.$reifiedElement, 0, this);
+                return;
+            } catch (AbstractMethodError e) {
+                // compiled before putElements() was added: 
+                // put them one by one instead
+            }
+        }
         for (int ii = 0; ii < getSize(); ii++) {
             dtor.<Element>putElement(this.$reifiedElement, ii, unsafeItem(ii));
         }
@@ -1827,38 +2113,46 @@ public final class Array<Element>
             //TypeDescriptor reifiedElement = Metamodel.getTypeDescriptor(dted.getTypeArgument(elementTypeParameter));
             //Util.setter(MethodHandles.lookup(), "$reifiedElement").invokeExact(this, reifiedElement);
             
-            ValueDeclaration sizeAttribute = (ValueDeclaration)((ClassDeclaration)Metamodel.getOrCreateMetamodel(Array.class)).getMemberDeclaration(ceylon.language.meta.declaration.ValueDeclaration.$TypeDescriptor$, "size");
-            Integer size = (Integer)dted.getValue(Integer.$TypeDescriptor$, sizeAttribute);
-            Util.setter(MethodHandles.lookup(), "size").invokeExact(this, Util.toInt(size.value));
+            Integer size = (Integer)dted.getValue(Integer.$TypeDescriptor$, SerializedMembers.SIZE);
+            SerializedMembers.SET_SIZE.invokeExact(this, Util.toInt(size.value));
             java.lang.Object a = createArrayWithElement(this.$reifiedElement, Util.toInt(size.value), (Element)null);
             
-            Util.setter(MethodHandles.lookup(), "array").invokeExact(this, a);
+            SerializedMembers.SET_ARRAY.invokeExact(this, a);
             switch (this.elementType) {
             case Other:
-                Util.setter(MethodHandles.lookup(), "objectArray").invoke(this, a);
+                SerializedMembers.SET_OBJECT_ARRAY.invokeExact(this, a);
                 break;
             case CeylonInteger:
-                Util.setter(MethodHandles.lookup(), "longArray").invoke(this, a);
+                SerializedMembers.SET_LONG_ARRAY.invokeExact(this, a);
                 break;
             case CeylonFloat:
-                Util.setter(MethodHandles.lookup(), "doubleArray").invoke(this, a);
+                SerializedMembers.SET_DOUBLE_ARRAY.invokeExact(this, a);
                 break;
             case CeylonByte:
-                Util.setter(MethodHandles.lookup(), "byteArray").invoke(this, a);
+                SerializedMembers.SET_BYTE_ARRAY.invokeExact(this, a);
                 break;
             case CeylonCharacter:
-                Util.setter(MethodHandles.lookup(), "intArray").invoke(this, a);
+                SerializedMembers.SET_INT_ARRAY.invokeExact(this, a);
                 break;
             case CeylonBoolean:
-                Util.setter(MethodHandles.lookup(), "booleanArray").invoke(this, a);
+                SerializedMembers.SET_BOOLEAN_ARRAY.invokeExact(this, a);
                 break;
             case CeylonString:
-                Util.setter(MethodHandles.lookup(), "stringArray").invoke(this, a);
+                SerializedMembers.SET_STRING_ARRAY.invokeExact(this, a);
                 break;
             default:
                 // nothing to do
             }
             
+            if (hasPrimitiveElements()) {
+                try {
+                    dted.<Element>getElements(this.$reifiedElement, 0, this);
+                    return;
+                } catch (AbstractMethodError e) {
+                    // compiled before getElements() was added: 
+                    // get them one by one instead
+                }
+            }
             for (int ii = 0; ii < size.value; ii++) {
                 java.lang.Object elementValOrRef = dted.<Element>getElement(this.$reifiedElement, ii);
                 Element element;
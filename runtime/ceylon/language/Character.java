@@ -43,8 +43,53 @@ public final class Character
         throw Util.makeUnimplementedMixinAccessException();
     }
 
+    /**
+     * Cache of preallocated boxes for the Latin-1 characters,
+     * so that iterating mostly ASCII text does not allocate.
+     * If the {@code ceylon.character.cache.bmp} system 
+     * property is {@code true}, boxes for the rest of the 
+     * Basic Multilingual Plane are also cached, as they're 
+     * first needed.
+     */
+    @Ignore
+    private static final class Cache {
+        static final Character[] LATIN1 = new Character[256];
+        static {
+            for (int i = 0; i < LATIN1.length; i++) {
+                LATIN1[i] = new Character(i);
+            }
+        }
+        
+        /** 
+         * Races just box the same character twice: Character 
+         * is immutable, and only its identity differs 
+         */
+        static final Character[] BMP = bmp() ? 
+                new Character[java.lang.Character.MAX_VALUE + 1] : null;
+        
+        private static boolean bmp() {
+            try {
+                return java.lang.Boolean.getBoolean("ceylon.character.cache.bmp");
+            } catch (SecurityException e) {
+                return false;
+            }
+        }
+    }
+    
     @Ignore
     public static Character instance(int c) {
+        if (c >= 0 && c < 256) {
+            return Cache.LATIN1[c];
+        }
+        Character[] bmp = Cache.BMP;
+        if (bmp != null && c >= 0 && c < bmp.length) {
+            Character ch = bmp[c];
+            if (ch == null) {
+                ch = new Character(c);
+                bmp[c] = ch;
+            }
+            return ch;
+        }
         return new Character(c);
     }
 
@@ -126,7 +171,7 @@ public final class Character
     }
 
     public ceylon.language.Character getLowercased() {
-        return new Character(java.lang.Character.toLowerCase(codePoint));
+        return instance(java.lang.Character.toLowerCase(codePoint));
     }
 
     @Ignore
@@ -135,7 +180,7 @@ public final class Character
     }
 
     public ceylon.language.Character getUppercased() {
-        return new Character(java.lang.Character.toUpperCase(codePoint));
+        return instance(java.lang.Character.toUpperCase(codePoint));
     }
 
     @Ignore
@@ -144,7 +189,7 @@ public final class Character
     }
 
     public ceylon.language.Character getTitlecased() {
-        return new Character(java.lang.Character.toTitleCase(codePoint));
+        return instance(java.lang.Character.toTitleCase(codePoint));
     }
 
     @Ignore
@@ -204,7 +249,7 @@ public final class Character
 
     @Override
     public Character getPredecessor() {
-    	return new Character(getPredecessor(codePoint));
+    	return instance(getPredecessor(codePoint));
     }
 
     @Ignore
@@ -214,7 +259,7 @@ public final class Character
 
     @Override
     public Character getSuccessor() {
-    	return new Character(getSuccessor(codePoint));
+    	return instance(getSuccessor(codePoint));
     }
 
     @Ignore
@@ -77,8 +77,47 @@ public final class Integer
         throw Util.makeUnimplementedMixinAccessException();
     }
 
+    /**
+     * Cache of preallocated boxes for small values, so that
+     * boxing loop counters, indices and the like does not
+     * allocate. The bounds default to -128..1023 and may be
+     * overridden with the {@code ceylon.integer.cache.low}
+     * and {@code ceylon.integer.cache.high} system properties.
+     */
+    @Ignore
+    private static final class Cache {
+        static final long LOW = bound("ceylon.integer.cache.low", -128);
+        static final long HIGH = Math.max(LOW - 1, 
+                bound("ceylon.integer.cache.high", 1023));
+        static final Integer[] BOXES = new Integer[(int)(HIGH - LOW + 1)];
+        static {
+            for (int i = 0; i < BOXES.length; i++) {
+                BOXES[i] = new Integer(LOW + i);
+            }
+        }
+        
+        private static long bound(java.lang.String property, long defaultValue) {
+            try {
+                java.lang.String value = System.getProperty(property);
+                if (value != null) {
+                    long bound = Long.parseLong(value.trim());
+                    // keep the table addressable by an int index
+                    if (Math.abs(bound) <= 1<<24) {
+                        return bound;
+                    }
+                }
+            } catch (NumberFormatException|SecurityException e) {
+                // fall back to the default
+            }
+            return defaultValue;
+        }
+    }
+    
     @Ignore
     public static Integer instance(long l) {
+        if (l >= Cache.LOW && l <= Cache.HIGH) {
+            return Cache.BOXES[(int)(l - Cache.LOW)];
+        }
         return new Integer(l);
     }
 
@@ -5,6 +5,7 @@ import ceylon.language.impl.BaseIterator;
 
 import com.redhat.ceylon.compiler.java.Util;
 import com.redhat.ceylon.compiler.java.language.AbstractCallable;
+import com.redhat.ceylon.compiler.java.language.CodePointIndex;
 import com.redhat.ceylon.compiler.java.language.StringInclusions;
 import com.redhat.ceylon.compiler.java.language.StringTokens;
 import com.redhat.ceylon.compiler.java.metadata.Annotation;
@@ -203,15 +204,14 @@ public final class String
     @Override
     @TypeInfo("ceylon.language::Integer")
     public long getSize() {
-        //TODO: should we cache this value in an instvar?
-        // But remember that we'll mostly be using the static verion
-        // of this method! So an instvar won't help much.
-        return value.codePointCount(0, value.length());
+        // long strings have their code points indexed, see
+        // CodePointIndex
+        return CodePointIndex.count(value);
     }
 
     @Ignore
     public static long getSize(java.lang.String value) {
-        return value.codePointCount(0, value.length());
+        return CodePointIndex.count(value);
     }
 
     @Override
@@ -252,12 +252,12 @@ public final class String
     @Override
     @TypeInfo("ceylon.language::Null|ceylon.language::Character")
     public Character getFromLast(@Name("index") long key) {
-        return getFromFirst(value, value.length()-1-key);
+        return getFromFirst(value, getSize(value)-1-key);
     }
 
     @Ignore
     public static Character getFromLast(java.lang.String value, long key) {
-        return getFromFirst(value, value.length()-1-key);
+        return getFromFirst(value, getSize(value)-1-key);
     }
 
     @Override
@@ -273,7 +273,10 @@ public final class String
         if (index < 0 || index >= length) {
             return null;
         }
-        int offset = value.offsetByCodePoints(0, index);
+        if (index >= CodePointIndex.count(value)) {
+            return null;
+        }
+        int offset = CodePointIndex.offset(value, index);
         int codePoint = value.codePointAt(offset);
         return Character.instance(codePoint);
     }
@@ -404,7 +407,7 @@ public final class String
             long index, List<?> sublist) {
         if (sublist instanceof String) {
             java.lang.String str = ((String) sublist).value;
-            int offset = value.offsetByCodePoints(0, Util.toInt(index));
+            int offset = CodePointIndex.offset(value, Util.toInt(index));
             return value.regionMatches(offset, str, 0, str.length());
         }
         else {
@@ -418,7 +421,7 @@ public final class String
             @Name("sublist") List<?> sublist) {
         if (sublist instanceof String) {
             java.lang.String str = ((String) sublist).value;
-            int offset = value.offsetByCodePoints(0, Util.toInt(index));
+            int offset = CodePointIndex.offset(value, Util.toInt(index));
             return value.regionMatches(offset, str, 0, str.length());
         }
         else {
@@ -482,7 +485,7 @@ public final class String
         if (sublist instanceof String) {
             int index = value.indexOf(((String) sublist).value);
             return index >= 0 ? 
-                    Integer.instance(value.codePointCount(0, index)) : 
+                    Integer.instance(CodePointIndex.index(value, index)) : 
                         null;
         }
         else {
@@ -496,7 +499,7 @@ public final class String
         if (sublist instanceof String) {
             int index = value.indexOf(((String) sublist).value);
             return index >= 0 ? 
-                    Integer.instance(value.codePointCount(0, index)) : 
+                    Integer.instance(CodePointIndex.index(value, index)) : 
                         null;
         }
         else {
@@ -509,7 +512,7 @@ public final class String
         if (sublist instanceof String) {
             int index = value.lastIndexOf(((String) sublist).value);
             return index >= 0 ? 
-                    Integer.instance(value.codePointCount(0, index)) : 
+                    Integer.instance(CodePointIndex.index(value, index)) : 
                         null;
         }
         else {
@@ -523,7 +526,7 @@ public final class String
         if (sublist instanceof String) {
             int index = value.lastIndexOf(((String) sublist).value);
             return index >= 0 ? 
-                    Integer.instance(value.codePointCount(0, index)) : 
+                    Integer.instance(CodePointIndex.index(value, index)) : 
                         null;
         }
         else {
@@ -537,7 +540,7 @@ public final class String
         if (element instanceof Character) {
             int index = value.indexOf(((Character) element).codePoint);
             return index >= 0 ? 
-                    Integer.instance(value.codePointCount(0, index)) : 
+                    Integer.instance(CodePointIndex.index(value, index)) : 
                         null;
         }
         else {
@@ -554,7 +557,7 @@ public final class String
         if (element instanceof Character) {
             int index = value.indexOf(((Character) element).codePoint);
             return index >= 0 ? 
-                    Integer.instance(value.codePointCount(0, index)) : 
+                    Integer.instance(CodePointIndex.index(value, index)) : 
                         null;
         }
         else {
@@ -568,7 +571,7 @@ public final class String
         if (element instanceof Character) {
             int index = value.lastIndexOf(((Character) element).codePoint);
             return index >= 0 ? 
-                    Integer.instance(value.codePointCount(0, index)) : 
+                    Integer.instance(CodePointIndex.index(value, index)) : 
                         null;
         }
         else {
@@ -585,7 +588,7 @@ public final class String
         if (element instanceof Character) {
             int index = value.lastIndexOf(((Character) element).codePoint);
             return index >= 0 ? 
-                    Integer.instance(value.codePointCount(0, index)) : 
+                    Integer.instance(CodePointIndex.index(value, index)) : 
                         null;
         }
         else {
@@ -732,48 +735,24 @@ public final class String
 
     public boolean longerThan(@TypeInfo("ceylon.language::Integer")
     @Name("length") long length) {
-        try {
-            value.offsetByCodePoints(0, Util.toInt(length+1));
-            return true;
-        }
-        catch (IndexOutOfBoundsException iobe) {
-            return false;
-        }
+        return getSize(value) > length;
     }
 
     @Ignore
     public static boolean longerThan(java.lang.String value, 
             long length) {
-        try {
-            value.offsetByCodePoints(0, Util.toInt(length+1));
-            return true;
-        }
-        catch (IndexOutOfBoundsException iobe) {
-            return false;
-        }
+        return getSize(value) > length;
     }
 
     public boolean shorterThan(@TypeInfo("ceylon.language::Integer")
     @Name("length") long length) {
-        try {
-            value.offsetByCodePoints(0, Util.toInt(length));
-            return false;
-        }
-        catch (IndexOutOfBoundsException iobe) {
-            return true;
-        }
+        return getSize(value) < length;
     }
 
     @Ignore
     public static boolean shorterThan(java.lang.String value, 
             long length) {
-        try {
-            value.offsetByCodePoints(0, Util.toInt(length));
-            return false;
-        }
-        catch (IndexOutOfBoundsException iobe) {
-            return true;
-        }
+        return getSize(value) < length;
     }
 
     @Transient
@@ -820,9 +799,13 @@ public final class String
     public static java.lang.String trimTrailing(java.lang.String value, 
             Callable<? extends Boolean> characters) {
         int to = value.length();
+        // a StringTokens separator tests the code point unboxed
+        AbstractCallable<?> predicate = characters instanceof AbstractCallable ? 
+                (AbstractCallable<?>) characters : null;
         while (to > 0) {
             int c = java.lang.Character.codePointBefore(value, to);
-            if (!characters.$call$(Character.instance(c)).booleanValue()) {
+            if (predicate != null ? !predicate.$call$booleanChar(c) :
+                    !characters.$call$(Character.instance(c)).booleanValue()) {
                 break;
             }
             to -= java.lang.Character.charCount(c);
@@ -905,7 +888,7 @@ public final class String
         } else if (length >= getSize(value)) {
             return value;
         } else {
-            int offset = value.offsetByCodePoints(0, Util.toInt(length));
+            int offset = CodePointIndex.offset(value, Util.toInt(length));
             return value.substring(0, offset);
         }
     }
@@ -923,8 +906,8 @@ public final class String
         } else if (length >= getSize(value)) {
             return value;
         } else {
-            int offset = value.offsetByCodePoints(0, 
-                    Util.toInt(value.length()-length));
+            int offset = CodePointIndex.offset(value, 
+                    Util.toInt(getSize(value)-length));
             return value.substring(offset, value.length());
         }
     }
@@ -985,8 +968,9 @@ public final class String
         if ((fromIndex + resultLength) > len) {
             resultLength = len - fromIndex;
         }
-        int start = value.offsetByCodePoints(0, Util.toInt(fromIndex));
-        int end = value.offsetByCodePoints(start, Util.toInt(resultLength));
+        int start = CodePointIndex.offset(value, Util.toInt(fromIndex));
+        int end = CodePointIndex.offset(value, 
+                Util.toInt(fromIndex + resultLength));
         return value.substring(start, end);
     }
 
@@ -1015,9 +999,8 @@ public final class String
         if (from < 0) {
             from = 0;
         }
-        int start = value.offsetByCodePoints(0, Util.toInt(from));
-        int end = value.offsetByCodePoints(start, 
-                Util.toInt(toIndex - from + 1));
+        int start = CodePointIndex.offset(value, Util.toInt(from));
+        int end = CodePointIndex.offset(value, Util.toInt(toIndex + 1));
         return value.substring(start, end);
     }
     
@@ -1056,7 +1039,7 @@ public final class String
             toIndex = len - 1;
         }
         int start = 0;
-        int end = value.offsetByCodePoints(start, Util.toInt(toIndex + 1));
+        int end = CodePointIndex.offset(value, Util.toInt(toIndex + 1));
         return value.substring(start, end);
     }
     
@@ -1083,9 +1066,8 @@ public final class String
         if (from < 0) {
             from = 0;
         }
-        int start = value.offsetByCodePoints(0, Util.toInt(from));
-        int end = value.offsetByCodePoints(start, 
-                Util.toInt(toIndex - from + 1));
+        int start = CodePointIndex.offset(value, Util.toInt(from));
+        int end = CodePointIndex.offset(value, Util.toInt(toIndex + 1));
         java.lang.String result = value.substring(start, end);
         return reverse ? getReversed(result) : result;
     }
@@ -1309,41 +1291,15 @@ public final class String
                         instance(second) });
     }
     
+    // StringTokens tests these without boxing each character
     @Ignore
-    private static Callable<Boolean> WHITESPACE = 
-    new AbstractCallable<Boolean>(Boolean.$TypeDescriptor$, 
-            TypeDescriptor.klass(Tuple.class, Character.$TypeDescriptor$, 
-                    Character.$TypeDescriptor$, Empty.$TypeDescriptor$),
-            "whitespace", (short)-1) {
-        @Override
-        public Boolean $call$(java.lang.Object ch) {
-            return Boolean.instance(((Character) ch).getWhitespace());
-        }
-    };
+    private static Callable<Boolean> WHITESPACE = StringTokens.WHITESPACE;
     
     @Ignore
-    private static Callable<Boolean> NEWLINES = 
-    new AbstractCallable<Boolean>(Boolean.$TypeDescriptor$, 
-            TypeDescriptor.klass(Tuple.class, Character.$TypeDescriptor$, 
-                    Character.$TypeDescriptor$, Empty.$TypeDescriptor$),
-            "newlines", (short)-1) {
-        @Override
-        public Boolean $call$(java.lang.Object ch) {
-            return Boolean.instance(((Character) ch).intValue()=='\n');
-        }
-    };
+    private static Callable<Boolean> NEWLINES = StringTokens.separator('\n');
     
     @Ignore
-    private static Callable<Boolean> RETURNS = 
-    new AbstractCallable<Boolean>(Boolean.$TypeDescriptor$, 
-            TypeDescriptor.klass(Tuple.class, Character.$TypeDescriptor$, 
-                    Character.$TypeDescriptor$, Empty.$TypeDescriptor$),
-            "returns", (short)-1) {
-        @Override
-        public Boolean $call$(java.lang.Object ch) {
-            return Boolean.instance(((Character) ch).intValue()=='\r');
-        }
-    };
+    private static Callable<Boolean> RETURNS = StringTokens.separator('\r');
     
     private static Callable<String> TRIM_RETURNS =
     new AbstractCallable<String>($TypeDescriptor$,
@@ -1778,6 +1734,32 @@ public final class String
         return instance(value).getCycled();
     }
     
+    @Ignore
+    public static <Group> Map<? extends Group, ? extends Sequence<? extends Character>> 
+    group(@Ignore TypeDescriptor $reifiedGroup, 
+            java.lang.String value, Callable<? extends Group> grouping) {
+        return instance(value).group($reifiedGroup, grouping);
+    }
+    
+    @Ignore
+    public static Map<? extends Character, ? extends Integer> 
+    frequencies(java.lang.String value) {
+        return instance(value).frequencies();
+    }
+    
+    @Ignore
+    public static <Result> Map<? extends Character, ? extends Result> 
+    tabulate(@Ignore TypeDescriptor $reifiedResult, 
+            java.lang.String value, Callable<? extends Result> collecting) {
+        return instance(value).tabulate($reifiedResult, collecting);
+    }
+    
+    @Ignore
+    public static Iterable<? extends Character,?> 
+    getDistinct(java.lang.String value) {
+        return instance(value).getDistinct();
+    }
+    
     @Override
     @Ignore
     public TypeDescriptor $getType$() {
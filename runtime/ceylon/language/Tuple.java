@@ -4,6 +4,7 @@ import static com.redhat.ceylon.compiler.java.Util.toInt;
 import static com.redhat.ceylon.compiler.java.runtime.metamodel.Metamodel.getTypeDescriptor;
 import static java.lang.System.arraycopy;
 
+import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
 import java.lang.ref.SoftReference;
 import java.util.Arrays;
@@ -717,6 +718,48 @@ public final class Tuple<Element, First extends Element,
         this.array = new java.lang.Object[]{$reifiedFirst, $reifiedRest};
         this.rest = null;
     }
+    /**
+     * The members used by {@link #$serialize$} and 
+     * {@link #$deserialize$}, looked up the first time a 
+     * tuple is serialized or deserialized
+     */
+    @Ignore
+    private static final class SerializedMembers {
+        static final ceylon.language.meta.declaration.TypeParameter ELEMENT = 
+                ((GenericDeclaration)Metamodel.getOrCreateMetamodel(Tuple.class))
+                    .getTypeParameterDeclaration("Element");
+        static final ceylon.language.meta.declaration.TypeParameter FIRST = 
+                ((GenericDeclaration)Metamodel.getOrCreateMetamodel(Tuple.class))
+                    .getTypeParameterDeclaration("First");
+        static final ceylon.language.meta.declaration.TypeParameter REST = 
+                ((GenericDeclaration)Metamodel.getOrCreateMetamodel(Tuple.class))
+                    .getTypeParameterDeclaration("Rest");
+        static final ValueDeclaration FIRST_ATTRIBUTE = 
+                (ValueDeclaration)((ClassDeclaration)Metamodel.getOrCreateMetamodel(Tuple.class))
+                    .getMemberDeclaration(ValueDeclaration.$TypeDescriptor$, "first");
+        static final ValueDeclaration REST_ATTRIBUTE = 
+                (ValueDeclaration)((ClassDeclaration)Metamodel.getOrCreateMetamodel(Tuple.class))
+                    .getMemberDeclaration(ValueDeclaration.$TypeDescriptor$, "rest");
+        
+        static final MethodHandle SET_ARRAY;
+        static final MethodHandle SET_REST;
+        static {
+            try {
+                MethodHandles.Lookup lookup = lookup();
+                SET_ARRAY = Util.setter(lookup, "array");
+                SET_REST = Util.setter(lookup, "rest");
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+    }
+    
+    /** A lookup on Tuple, rather than on the calling nested class */
+    @Ignore
+    private static MethodHandles.Lookup lookup() {
+        return MethodHandles.lookup();
+    }
+    
     @Ignore
     @Override
     public void $serialize$(Callable<? extends Deconstructor> deconstructor) {
@@ -729,23 +772,18 @@ public final class Tuple<Element, First extends Element,
         TypeDescriptor reifiedFirst = myTd.getTypeArguments()[1];
         TypeDescriptor reifiedRest = myTd.getTypeArguments()[2];
         
-        dtor.putTypeArgument(
-                ((GenericDeclaration)Metamodel.getOrCreateMetamodel(Tuple.class)).getTypeParameterDeclaration("Element"), 
+        dtor.putTypeArgument(SerializedMembers.ELEMENT, 
                 Metamodel.getAppliedMetamodel(reifiedElement));
         
-        dtor.putTypeArgument(
-                ((GenericDeclaration)Metamodel.getOrCreateMetamodel(Tuple.class)).getTypeParameterDeclaration("First"), 
+        dtor.putTypeArgument(SerializedMembers.FIRST, 
                 Metamodel.getAppliedMetamodel(reifiedFirst));
         
-        dtor.putTypeArgument(
-                ((GenericDeclaration)Metamodel.getOrCreateMetamodel(Tuple.class)).getTypeParameterDeclaration("Rest"), 
+        dtor.putTypeArgument(SerializedMembers.REST, 
                 Metamodel.getAppliedMetamodel(reifiedRest));
         
-        ValueDeclaration firstAttribute = (ValueDeclaration)((ClassDeclaration)Metamodel.getOrCreateMetamodel(Tuple.class)).getMemberDeclaration(ValueDeclaration.$TypeDescriptor$, "first");
-        dtor.putValue(reifiedFirst, firstAttribute, getFirst());
+        dtor.putValue(reifiedFirst, SerializedMembers.FIRST_ATTRIBUTE, getFirst());
         
-        ValueDeclaration restAttribute = (ValueDeclaration)((ClassDeclaration)Metamodel.getOrCreateMetamodel(Tuple.class)).getMemberDeclaration(ValueDeclaration.$TypeDescriptor$, "rest");
-        dtor.putValue(reifiedRest, restAttribute, getRest());
+        dtor.putValue(reifiedRest, SerializedMembers.REST_ATTRIBUTE, getRest());
     }
     @Ignore
     @Override
@@ -757,11 +795,8 @@ public final class Tuple<Element, First extends Element,
             TypeDescriptor reifiedFirst = (TypeDescriptor)this.array[0];
             TypeDescriptor reifiedRest = (TypeDescriptor)this.array[1];
             
-            ValueDeclaration firstAttribute = (ValueDeclaration)((ClassDeclaration)Metamodel.getOrCreateMetamodel(Tuple.class)).getMemberDeclaration(ValueDeclaration.$TypeDescriptor$, "first");
-            ValueDeclaration restAttribute = (ValueDeclaration)((ClassDeclaration)Metamodel.getOrCreateMetamodel(Tuple.class)).getMemberDeclaration(ValueDeclaration.$TypeDescriptor$, "rest");
-            
-            java.lang.Object firstValOrRef = deconstructed.<First>getValue(reifiedFirst, firstAttribute);
-            java.lang.Object restValOrRef = deconstructed.<Rest>getValue(reifiedRest, restAttribute);
+            java.lang.Object firstValOrRef = deconstructed.<First>getValue(reifiedFirst, SerializedMembers.FIRST_ATTRIBUTE);
+            java.lang.Object restValOrRef = deconstructed.<Rest>getValue(reifiedRest, SerializedMembers.REST_ATTRIBUTE);
             
             First first;
             if (firstValOrRef instanceof ceylon.language.serialization.Reference) {
@@ -784,8 +819,8 @@ public final class Tuple<Element, First extends Element,
             
             Rest rest2 = (Rest)makeRest(rest1);
             java.lang.Object[] array = makeArray(first, rest1);
-            Util.setter(MethodHandles.lookup(), "array").invokeExact(this, array);
-            Util.setter(MethodHandles.lookup(), "rest").invokeExact(this, rest2);
+            SerializedMembers.SET_ARRAY.invokeExact(this, array);
+            SerializedMembers.SET_REST.invokeExact(this, rest2);
         } catch (java.lang.Throwable t) {
             rethrow_.rethrow(t);
         }
@@ -0,0 +1,59 @@
+package ceylon.language;
+
+import java.util.concurrent.RecursiveAction;
+
+import com.redhat.ceylon.compiler.java.language.ParallelArrays;
+import com.redhat.ceylon.compiler.java.metadata.Ceylon;
+import com.redhat.ceylon.compiler.java.metadata.FunctionalParameter;
+import com.redhat.ceylon.compiler.java.metadata.Method;
+import com.redhat.ceylon.compiler.java.metadata.Name;
+import com.redhat.ceylon.compiler.java.metadata.TypeInfo;
+
+@Ceylon(major = 7)
+@Method
+final class forkJoin_ {
+    
+    private forkJoin_() {}
+    
+    static void forkJoin(@Name("count") final long count,
+            @Name("task") @FunctionalParameter("(index)")
+            @TypeInfo("ceylon.language::Callable<ceylon.language::Anything,ceylon.language::Tuple<ceylon.language::Integer,ceylon.language::Integer,ceylon.language::Empty>>")
+            final Callable<? extends java.lang.Object> task) {
+        if (count <= 1 
+                || Runtime.getRuntime().availableProcessors() <= 1) {
+            for (long index=0; index<count; index++) {
+                task.$call$(Integer.instance(index));
+            }
+        }
+        else {
+            ParallelArrays.pool().invoke(new Tasks(task, 0, count));
+        }
+    }
+    
+    /** Calls the task with every index from from up to to */
+    private static final class Tasks extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final Callable<? extends java.lang.Object> task;
+        private final long from;
+        private final long to;
+        
+        Tasks(Callable<? extends java.lang.Object> task, 
+                long from, long to) {
+            this.task = task;
+            this.from = from;
+            this.to = to;
+        }
+        
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                task.$call$(Integer.instance(from));
+            }
+            else {
+                long middle = (from + to) >>> 1;
+                invokeAll(new Tasks(task, from, middle), 
+                        new Tasks(task, middle, to));
+            }
+        }
+    }
+}
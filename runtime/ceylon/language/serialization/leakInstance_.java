@@ -0,0 +1,27 @@
+package ceylon.language.serialization;
+
+import com.redhat.ceylon.compiler.java.metadata.Ceylon;
+import com.redhat.ceylon.compiler.java.metadata.Ignore;
+import com.redhat.ceylon.compiler.java.metadata.Method;
+import com.redhat.ceylon.compiler.java.metadata.Name;
+import com.redhat.ceylon.compiler.java.metadata.TypeInfo;
+import com.redhat.ceylon.compiler.java.metadata.TypeParameter;
+import com.redhat.ceylon.compiler.java.metadata.TypeParameters;
+import com.redhat.ceylon.compiler.java.runtime.model.TypeDescriptor;
+import com.redhat.ceylon.compiler.java.runtime.serialization.$InstanceLeaker$;
+
+@Ceylon(major=7, minor=0)
+@Method
+final class leakInstance_ {
+    private leakInstance_(){}
+    
+    @SuppressWarnings("unchecked")
+    @TypeParameters(@TypeParameter("Instance"))
+    @TypeInfo("Instance")
+    static <Instance> Instance leakInstance(@Ignore TypeDescriptor $reifiedInstance,
+            @Name("reference")
+            @TypeInfo("ceylon.language.serialization::Reference<Instance>")
+            Reference<? extends Instance> reference) {
+        return (($InstanceLeaker$<? extends Instance>)reference).$leakInstance$();
+    }
+}
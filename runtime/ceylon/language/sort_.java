@@ -0,0 +1,37 @@
+package ceylon.language;
+
+import com.redhat.ceylon.compiler.java.metadata.Ceylon;
+import com.redhat.ceylon.compiler.java.metadata.Ignore;
+import com.redhat.ceylon.compiler.java.metadata.Method;
+import com.redhat.ceylon.compiler.java.metadata.Name;
+import com.redhat.ceylon.compiler.java.metadata.TypeInfo;
+import com.redhat.ceylon.compiler.java.metadata.TypeParameter;
+import com.redhat.ceylon.compiler.java.metadata.TypeParameters;
+import com.redhat.ceylon.compiler.java.runtime.model.TypeDescriptor;
+
+@Ceylon(major = 7)
+@Method
+public final class sort_ {
+    
+    private sort_() {}
+    
+    @SuppressWarnings("unchecked")
+    @TypeParameters(@TypeParameter(value="Element", 
+            satisfies="ceylon.language::Comparable<Element>"))
+    @TypeInfo("ceylon.language::Sequential<Element>")
+    public static <Element extends Comparable<? super Element>> 
+    Sequential<? extends Element> sort(@Ignore final TypeDescriptor $reifiedElement, 
+            @Name("elements")
+            @TypeInfo("ceylon.language::Iterable<Element,ceylon.language::Null>")
+            final Iterable<? extends Element, ?> elements) {
+        Array<Element> array = new Array<Element>($reifiedElement, elements);
+        if (array.getEmpty()) {
+            return (Sequential<? extends Element>) empty_.get_();
+        }
+        // sort the underlying array directly, rather than 
+        // calling byIncreasing(identity) for every comparison
+        array.sortInPlaceNaturally();
+        return new ArraySequence<Element>($reifiedElement, array);
+    }
+    
+}
@@ -79,6 +79,100 @@ public abstract class AbstractCallable<Return> implements Callable<Return>, Reif
         throw new UnsupportedOperationException();
     }
     
+    /*
+     * Entry points specialized to primitive arguments and results,
+     * which let callers such as Array call a function of Integers,
+     * Floats or Characters without boxing every argument and
+     * result. Each defaults to the boxed $call$ above, so callers
+     * may use them with any AbstractCallable, and subclasses which
+     * can compute the result from the primitives directly override
+     * them.
+     */
+
+    /** Calls a function of type {@code Integer(Integer)} */
+    @Ignore
+    public long $call$long(long arg0) {
+        return ((ceylon.language.Integer)$call$(ceylon.language.Integer.instance(arg0))).longValue();
+    }
+
+    /** Calls a function of type {@code Integer(Integer,Integer)} */
+    @Ignore
+    public long $call$long(long arg0, long arg1) {
+        return ((ceylon.language.Integer)$call$(ceylon.language.Integer.instance(arg0),
+                ceylon.language.Integer.instance(arg1))).longValue();
+    }
+
+    /** Calls a function of type {@code Float(Float)} */
+    @Ignore
+    public double $call$double(double arg0) {
+        return ((ceylon.language.Float)$call$(ceylon.language.Float.instance(arg0))).doubleValue();
+    }
+
+    /** Calls a function of type {@code Float(Float,Float)} */
+    @Ignore
+    public double $call$double(double arg0, double arg1) {
+        return ((ceylon.language.Float)$call$(ceylon.language.Float.instance(arg0),
+                ceylon.language.Float.instance(arg1))).doubleValue();
+    }
+
+    /** Calls a function of type {@code Boolean(Integer)} */
+    @Ignore
+    public boolean $call$boolean(long arg0) {
+        return ((ceylon.language.Boolean)$call$(ceylon.language.Integer.instance(arg0))).booleanValue();
+    }
+
+    /** Calls a function of type {@code Boolean(Float)} */
+    @Ignore
+    public boolean $call$boolean(double arg0) {
+        return ((ceylon.language.Boolean)$call$(ceylon.language.Float.instance(arg0))).booleanValue();
+    }
+
+    /**
+     * Calls a function of type {@code Boolean(Character)} with
+     * the code point of the character
+     */
+    @Ignore
+    public boolean $call$booleanChar(int arg0) {
+        return ((ceylon.language.Boolean)$call$(ceylon.language.Character.instance(arg0))).booleanValue();
+    }
+
+    /**
+     * Whether this function overrides {@link #$call$comparison(long, long)},
+     * {@link #$call$comparison(double, double)} and 
+     * {@link #$call$comparisonChar(int, int)} to compare the
+     * primitives directly. Callers such as Array only sort by
+     * the primitive entry points when it does, since the boxing
+     * defaults would allocate two values on every comparison.
+     */
+    @Ignore
+    public boolean $comparesPrimitives$() {
+        return false;
+    }
+
+    /** Calls a function of type {@code Comparison(Integer,Integer)} */
+    @Ignore
+    public ceylon.language.Comparison $call$comparison(long arg0, long arg1) {
+        return (ceylon.language.Comparison)$call$(ceylon.language.Integer.instance(arg0),
+                ceylon.language.Integer.instance(arg1));
+    }
+
+    /** Calls a function of type {@code Comparison(Float,Float)} */
+    @Ignore
+    public ceylon.language.Comparison $call$comparison(double arg0, double arg1) {
+        return (ceylon.language.Comparison)$call$(ceylon.language.Float.instance(arg0),
+                ceylon.language.Float.instance(arg1));
+    }
+
+    /**
+     * Calls a function of type {@code Comparison(Character,Character)}
+     * with the code points of the characters
+     */
+    @Ignore
+    public ceylon.language.Comparison $call$comparisonChar(int arg0, int arg1) {
+        return (ceylon.language.Comparison)$call$(ceylon.language.Character.instance(arg0),
+                ceylon.language.Character.instance(arg1));
+    }
+
     @java.lang.Override
     public String toString() {
         return string;
@@ -0,0 +1,38 @@
+package com.redhat.ceylon.compiler.java.language;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+
+/**
+ * <p>Binary access to the content of a {@link ceylon.language.Resource},
+ * which the JVM implementations of {@code Resource} provide, so that
+ * large resources can be consumed without holding their whole content
+ * as a {@code String} or a {@code byte[]} on the heap.</p>
+ *
+ * <p>{@code Resource} itself can't offer these, since Ceylon code on
+ * other platforms has no {@code ByteBuffer} or {@code InputStream}, but
+ * Ceylon code on the JVM can narrow a {@code Resource} to this
+ * interface.</p>
+ */
+public interface BinaryResource {
+
+    /**
+     * A read-only buffer over the content of the resource, which
+     * maps the content rather than reading it where it can
+     */
+    public ByteBuffer byteContent();
+
+    /**
+     * Opens a stream over the content of the resource, which the
+     * caller must close
+     */
+    public InputStream openStream() throws IOException;
+
+    /**
+     * Opens a reader over the content of the resource, decoded with
+     * the given encoding as it's read, which the caller must close
+     */
+    public Reader openReader(java.lang.String encoding) throws IOException;
+}
@@ -2,8 +2,11 @@ package com.redhat.ceylon.compiler.java.language;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.Reader;
 import java.net.URI;
+import java.nio.ByteBuffer;
 
 import ceylon.language.Resource;
 
@@ -17,7 +20,7 @@ import com.redhat.ceylon.compiler.java.metadata.SatisfiedTypes;
 @SatisfiedTypes({
     "ceylon.language::Resource"
 })
-public class ByteArrayResource implements Resource {
+public class ByteArrayResource implements Resource, BinaryResource {
     
     @Ignore
     protected final ceylon.language.Resource$impl $ceylon$language$Resource$this;
@@ -62,23 +65,30 @@ public class ByteArrayResource implements Resource {
 
     @Override
     public java.lang.String textContent(java.lang.String enc) {
-        final java.lang.StringBuilder sb = new java.lang.StringBuilder();
-        try (ByteArrayInputStream fis = new ByteArrayInputStream(contents);
-                InputStreamReader reader = new InputStreamReader(fis, enc)) {
-            char[] buf = new char[16384];
-            while (reader.ready()) {
-                int read = reader.read(buf);
-                if (read > 0) {
-                    sb.append(buf, 0, read);
-                }
-            }
-            return sb.toString();
+        try {
+            return Resources.decode(ByteBuffer.wrap(contents), enc);
         } catch (IOException ex) {
             throw new ceylon.language.Exception(new ceylon.language.String(
                     "Reading file resource " + getUri()), ex);
         }
     }
 
+    /** A read-only view of the contents, which doesn't copy them */
+    @Ignore @Override
+    public ByteBuffer byteContent() {
+        return ByteBuffer.wrap(contents).asReadOnlyBuffer();
+    }
+
+    @Ignore @Override
+    public InputStream openStream() {
+        return new ByteArrayInputStream(contents);
+    }
+
+    @Ignore @Override
+    public Reader openReader(java.lang.String encoding) throws IOException {
+        return new InputStreamReader(openStream(), encoding);
+    }
+
     @Override
     public java.lang.String textContent$encoding() {
         return $ceylon$language$Resource$this.textContent$encoding();
@@ -0,0 +1,162 @@
+package com.redhat.ceylon.compiler.java.language;
+
+import java.lang.ref.WeakReference;
+
+/**
+ * <p>Converts between code point indexes and {@code char}
+ * offsets in a {@code java.lang.String}, which is what
+ * indexing a {@link ceylon.language.String} amounts to.</p>
+ *
+ * <p>{@code String.offsetByCodePoints()} and
+ * {@code codePointCount()} scan the string from its start,
+ * so for long strings we instead record once where the
+ * surrogate pairs are: a string without any is indexed in
+ * constant time, and one with some with a binary search over
+ * the positions of its pairs. The indexes of the most
+ * recently used strings are kept in a small table keyed by
+ * identity, which holds the strings weakly.</p>
+ */
+public final class CodePointIndex {
+
+    /** Shorter strings are just scanned */
+    static final int MIN_LENGTH = 64;
+
+    private static final int SLOTS = 64;
+
+    /**
+     * Races just lose an index: the entries are immutable
+     * and only ever replaced
+     */
+    private static final CodePointIndex[] CACHE =
+            new CodePointIndex[SLOTS];
+
+    private final WeakReference<java.lang.String> string;
+    private final int length;
+    /**
+     * The offsets of the high surrogates of the surrogate
+     * pairs, in increasing order, or null if there are none
+     */
+    private final int[] pairs;
+
+    private CodePointIndex(java.lang.String value) {
+        string = new WeakReference<java.lang.String>(value);
+        length = value.length();
+        int[] pairs = null;
+        int count = 0;
+        for (int i = 0; i < length - 1; i++) {
+            if (Character.isHighSurrogate(value.charAt(i))
+                    && Character.isLowSurrogate(value.charAt(i+1))) {
+                if (pairs == null) {
+                    pairs = new int[16];
+                }
+                else if (count == pairs.length) {
+                    int[] grown = new int[count * 2];
+                    System.arraycopy(pairs, 0, grown, 0, count);
+                    pairs = grown;
+                }
+                pairs[count++] = i++;
+            }
+        }
+        if (pairs != null && count != pairs.length) {
+            int[] trimmed = new int[count];
+            System.arraycopy(pairs, 0, trimmed, 0, count);
+            pairs = trimmed;
+        }
+        this.pairs = pairs;
+    }
+
+    private static CodePointIndex of(java.lang.String value) {
+        int slot = System.identityHashCode(value) & (SLOTS-1);
+        CodePointIndex index = CACHE[slot];
+        if (index == null || index.string.get() != value) {
+            index = new CodePointIndex(value);
+            CACHE[slot] = index;
+        }
+        return index;
+    }
+
+    /**
+     * The number of code points in the given string, like
+     * {@code value.codePointCount(0, value.length())}
+     */
+    public static int count(java.lang.String value) {
+        if (value.length() < MIN_LENGTH) {
+            return value.codePointCount(0, value.length());
+        }
+        CodePointIndex index = of(value);
+        return index.pairs == null ?
+                index.length :
+                index.length - index.pairs.length;
+    }
+
+    /**
+     * The offset of the code point with the given index in
+     * the given string, like
+     * {@code value.offsetByCodePoints(0, codePoints)}
+     *
+     * @throws IndexOutOfBoundsException if the index is
+     * negative or larger than the number of code points
+     */
+    public static int offset(java.lang.String value, int codePoints) {
+        if (value.length() < MIN_LENGTH) {
+            return value.offsetByCodePoints(0, codePoints);
+        }
+        CodePointIndex index = of(value);
+        int[] pairs = index.pairs;
+        int size = pairs == null ?
+                index.length :
+                index.length - pairs.length;
+        if (codePoints < 0 || codePoints > size) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (pairs == null) {
+            return codePoints;
+        }
+        // the code point of the pair k has the index
+        // pairs[k]-k, which increases with k: count the
+        // pairs before the code point we're looking for
+        int low = 0;
+        int high = pairs.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (pairs[mid] - mid < codePoints) {
+                low = mid + 1;
+            }
+            else {
+                high = mid;
+            }
+        }
+        return codePoints + low;
+    }
+
+    /**
+     * The index of the code point at the given offset in
+     * the given string, like
+     * {@code value.codePointCount(0, offset)}
+     */
+    public static int index(java.lang.String value, int offset) {
+        if (value.length() < MIN_LENGTH) {
+            return value.codePointCount(0, offset);
+        }
+        if (offset < 0 || offset > value.length()) {
+            throw new IndexOutOfBoundsException();
+        }
+        int[] pairs = of(value).pairs;
+        if (pairs == null) {
+            return offset;
+        }
+        // count the pairs which end before the offset
+        int low = 0;
+        int high = pairs.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (pairs[mid] + 2 <= offset) {
+                low = mid + 1;
+            }
+            else {
+                high = mid;
+            }
+        }
+        return offset - low;
+    }
+}
@@ -3,7 +3,12 @@ package com.redhat.ceylon.compiler.java.language;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 
 import ceylon.language.Resource;
 
@@ -17,7 +22,7 @@ import com.redhat.ceylon.compiler.java.metadata.SatisfiedTypes;
 @SatisfiedTypes({
     "ceylon.language::Resource"
 })
-public class FileResource implements Resource {
+public class FileResource implements Resource, BinaryResource {
 
     @Ignore
     protected final ceylon.language.Resource$impl $ceylon$language$Resource$this;
@@ -55,23 +60,56 @@ public class FileResource implements Resource {
 
     @Override
     public java.lang.String textContent(java.lang.String enc) {
-        final java.lang.StringBuilder sb = new java.lang.StringBuilder();
-        try (FileInputStream fis = new FileInputStream(file);
-                InputStreamReader reader = new InputStreamReader(fis, enc)) {
-            char[] buf = new char[16384];
-            while (reader.ready()) {
-                int read = reader.read(buf);
-                if (read > 0) {
-                    sb.append(buf, 0, read);
-                }
-            }
-            return sb.toString();
+        try {
+            return Resources.decode(map(), enc);
         } catch (IOException ex) {
             throw new ceylon.language.Exception(new ceylon.language.String(
                     "Reading file resource " + getUri()), ex);
         }
     }
 
+    /**
+     * A read-only mapping of the file, so that its content is paged
+     * in by the OS as it's read rather than copied to the heap
+     */
+    @Ignore @Override
+    public ByteBuffer byteContent() {
+        try {
+            return map();
+        } catch (IOException ex) {
+            throw new ceylon.language.Exception(new ceylon.language.String(
+                    "Mapping file resource " + getUri()), ex);
+        }
+    }
+
+    private ByteBuffer map() throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+                FileChannel channel = raf.getChannel()) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("File is too large to be mapped: " + size + " bytes");
+            }
+            // the mapping stays valid after the channel is closed
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+    }
+
+    @Ignore @Override
+    public InputStream openStream() throws IOException {
+        return new FileInputStream(file);
+    }
+
+    @Ignore @Override
+    public Reader openReader(java.lang.String encoding) throws IOException {
+        InputStream stream = openStream();
+        try {
+            return new InputStreamReader(stream, encoding);
+        } catch (IOException ex) {
+            stream.close();
+            throw ex;
+        }
+    }
+
     @Override
     public java.lang.String textContent$encoding() {
         return $ceylon$language$Resource$this.textContent$encoding();
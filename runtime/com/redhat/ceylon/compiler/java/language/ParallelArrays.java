@@ -0,0 +1,427 @@
+package com.redhat.ceylon.compiler.java.language;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Bulk operations over the primitive arrays backing a
+ * {@link ceylon.language.Array}, which are split across a
+ * shared {@link ForkJoinPool} once the array is large
+ * enough, and run sequentially otherwise.
+ *
+ * <p>None of these operations call back into Ceylon code,
+ * so running them in parallel is never observable other
+ * than by the time they take.</p>
+ *
+ * <p>The size above which an array is processed in parallel
+ * defaults to {@value #DEFAULT_THRESHOLD} elements, and may
+ * be set with the {@code ceylon.array.parallelThreshold}
+ * system property. A non-positive value disables parallel
+ * processing.</p>
+ */
+public final class ParallelArrays {
+
+    private ParallelArrays() {}
+
+    static final int DEFAULT_THRESHOLD = 1<<17;
+
+    /** The smallest segment handed to a single task */
+    private static final int MIN_GRAIN = 1<<13;
+
+    private static final int THRESHOLD = threshold();
+
+    private static int threshold() {
+        try {
+            String value =
+                    System.getProperty("ceylon.array.parallelThreshold");
+            if (value != null) {
+                return Integer.parseInt(value.trim());
+            }
+        } catch (NumberFormatException|SecurityException e) {
+            // fall back to the default
+        }
+        return DEFAULT_THRESHOLD;
+    }
+
+    /** Lazily created, so that small programs never start it */
+    private static final class Pool {
+        static final ForkJoinPool INSTANCE = new ForkJoinPool();
+    }
+
+    /**
+     * The pool these operations run on, which is also used by
+     * the other parallel operations of the language module
+     */
+    public static ForkJoinPool pool() {
+        return Pool.INSTANCE;
+    }
+
+    /**
+     * Whether an array of the given length should be
+     * processed in parallel
+     */
+    public static boolean parallel(int length) {
+        return THRESHOLD > 0
+                && length >= THRESHOLD
+                && Runtime.getRuntime().availableProcessors() > 1;
+    }
+
+    private static int grain(int length) {
+        int parallelism = Pool.INSTANCE.getParallelism();
+        return Math.max(MIN_GRAIN, length / (parallelism * 4));
+    }
+
+    public static void sort(long[] array) {
+        if (parallel(array.length)) {
+            Pool.INSTANCE.invoke(new LongSort(array,
+                    new long[array.length], 0, array.length,
+                    grain(array.length)));
+        }
+        else {
+            Arrays.sort(array);
+        }
+    }
+
+    /**
+     * Sorts according to the total order of
+     * {@link Double#compare(double, double)},
+     * exactly like {@link Arrays#sort(double[])}.
+     */
+    public static void sort(double[] array) {
+        if (parallel(array.length)) {
+            Pool.INSTANCE.invoke(new DoubleSort(array,
+                    new double[array.length], 0, array.length,
+                    grain(array.length)));
+        }
+        else {
+            Arrays.sort(array);
+        }
+    }
+
+    public static void sort(int[] array) {
+        if (parallel(array.length)) {
+            Pool.INSTANCE.invoke(new IntSort(array,
+                    new int[array.length], 0, array.length,
+                    grain(array.length)));
+        }
+        else {
+            Arrays.sort(array);
+        }
+    }
+
+    public static void sort(String[] array) {
+        if (parallel(array.length)) {
+            Pool.INSTANCE.invoke(new StringSort(array,
+                    new String[array.length], 0, array.length,
+                    grain(array.length)));
+        }
+        else {
+            Arrays.sort(array);
+        }
+    }
+
+    public static boolean contains(final long[] array, final long element) {
+        return search(array.length, new Segment() {
+            @Override
+            boolean matches(int i) {
+                return array[i]==element;
+            }
+        });
+    }
+
+    /** Uses {@code ==}, so {@code NaN} is never found */
+    public static boolean contains(final double[] array, final double element) {
+        return search(array.length, new Segment() {
+            @Override
+            boolean matches(int i) {
+                return array[i]==element;
+            }
+        });
+    }
+
+    public static boolean contains(final int[] array, final int element) {
+        return search(array.length, new Segment() {
+            @Override
+            boolean matches(int i) {
+                return array[i]==element;
+            }
+        });
+    }
+
+    public static boolean contains(final byte[] array, final byte element) {
+        return search(array.length, new Segment() {
+            @Override
+            boolean matches(int i) {
+                return array[i]==element;
+            }
+        });
+    }
+
+    public static boolean contains(final boolean[] array, final boolean element) {
+        return search(array.length, new Segment() {
+            @Override
+            boolean matches(int i) {
+                return array[i]==element;
+            }
+        });
+    }
+
+    public static boolean contains(final String[] array,
+            final String element) {
+        return search(array.length, new Segment() {
+            @Override
+            boolean matches(int i) {
+                return element.equals(array[i]);
+            }
+        });
+    }
+
+    /** A search over a range of indexes of some array */
+    private static abstract class Segment {
+        /** Whether the element at the given index is the one searched for */
+        abstract boolean matches(int i);
+
+        final boolean contains(int from, int to) {
+            for (int i=from; i<to; i++) {
+                if (matches(i)) return true;
+            }
+            return false;
+        }
+    }
+
+    private static boolean search(int length, Segment segment) {
+        if (parallel(length)) {
+            AtomicBoolean found = new AtomicBoolean();
+            Pool.INSTANCE.invoke(new Search(segment, found,
+                    0, length, grain(length)));
+            return found.get();
+        }
+        else {
+            return segment.contains(0, length);
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static final class Search extends RecursiveAction {
+        private final Segment segment;
+        private final AtomicBoolean found;
+        private final int from;
+        private final int to;
+        private final int grain;
+
+        Search(Segment segment, AtomicBoolean found,
+                int from, int to, int grain) {
+            this.segment = segment;
+            this.found = found;
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+        }
+
+        @Override
+        protected void compute() {
+            if (found.get()) {
+                // another segment already found it
+                return;
+            }
+            if (to-from <= grain) {
+                if (segment.contains(from, to)) {
+                    found.set(true);
+                }
+            }
+            else {
+                int mid = (from+to) >>> 1;
+                invokeAll(new Search(segment, found, from, mid, grain),
+                        new Search(segment, found, mid, to, grain));
+            }
+        }
+    }
+
+    /**
+     * A merge sort of a segment of an array: each half is
+     * sorted in parallel, then, unless the halves are already
+     * in order, the left half is copied into the buffer and
+     * merged back with the right half. Taking from the left
+     * half when elements are equal keeps the merge stable.
+     * Subclasses supply the comparison and the moves for their
+     * type of array.
+     */
+    @SuppressWarnings("serial")
+    private static abstract class MergeSort extends RecursiveAction {
+        final Object array;
+        final Object buffer;
+        final int from;
+        final int to;
+        final int grain;
+
+        MergeSort(Object array, Object buffer,
+                int from, int to, int grain) {
+            this.array = array;
+            this.buffer = buffer;
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+        }
+
+        /** A task sorting the given segment of the same array */
+        abstract MergeSort segment(int from, int to);
+
+        /** Sorts this segment sequentially */
+        abstract void sortSegment();
+
+        /**
+         * Whether {@code source[i]} sorts no later than
+         * {@code array[j]}, where the source is either the
+         * array or the buffer
+         */
+        abstract boolean sortsFirst(Object source, int i, int j);
+
+        /** Sets {@code array[k]} to {@code source[i]} */
+        abstract void move(Object source, int i, int k);
+
+        @Override
+        protected final void compute() {
+            if (to-from <= grain) {
+                sortSegment();
+                return;
+            }
+            int mid = (from+to) >>> 1;
+            invokeAll(segment(from, mid), segment(mid, to));
+            if (sortsFirst(array, mid-1, mid)) {
+                return;
+            }
+            System.arraycopy(array, from, buffer, from, mid-from);
+            int i = from, j = mid, k = from;
+            while (i<mid && j<to) {
+                if (sortsFirst(buffer, i, j)) {
+                    move(buffer, i++, k++);
+                }
+                else {
+                    move(array, j++, k++);
+                }
+            }
+            System.arraycopy(buffer, i, array, k, mid-i);
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static final class LongSort extends MergeSort {
+        LongSort(long[] array, long[] buffer,
+                int from, int to, int grain) {
+            super(array, buffer, from, to, grain);
+        }
+
+        @Override
+        MergeSort segment(int from, int to) {
+            return new LongSort((long[]) array, (long[]) buffer,
+                    from, to, grain);
+        }
+
+        @Override
+        void sortSegment() {
+            Arrays.sort((long[]) array, from, to);
+        }
+
+        @Override
+        boolean sortsFirst(Object source, int i, int j) {
+            return ((long[]) source)[i] <= ((long[]) array)[j];
+        }
+
+        @Override
+        void move(Object source, int i, int k) {
+            ((long[]) array)[k] = ((long[]) source)[i];
+        }
+    }
+
+    /** Compares with {@link Double#compare(double, double)} */
+    @SuppressWarnings("serial")
+    private static final class DoubleSort extends MergeSort {
+        DoubleSort(double[] array, double[] buffer,
+                int from, int to, int grain) {
+            super(array, buffer, from, to, grain);
+        }
+
+        @Override
+        MergeSort segment(int from, int to) {
+            return new DoubleSort((double[]) array, (double[]) buffer,
+                    from, to, grain);
+        }
+
+        @Override
+        void sortSegment() {
+            Arrays.sort((double[]) array, from, to);
+        }
+
+        @Override
+        boolean sortsFirst(Object source, int i, int j) {
+            return Double.compare(((double[]) source)[i],
+                    ((double[]) array)[j]) <= 0;
+        }
+
+        @Override
+        void move(Object source, int i, int k) {
+            ((double[]) array)[k] = ((double[]) source)[i];
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static final class IntSort extends MergeSort {
+        IntSort(int[] array, int[] buffer,
+                int from, int to, int grain) {
+            super(array, buffer, from, to, grain);
+        }
+
+        @Override
+        MergeSort segment(int from, int to) {
+            return new IntSort((int[]) array, (int[]) buffer,
+                    from, to, grain);
+        }
+
+        @Override
+        void sortSegment() {
+            Arrays.sort((int[]) array, from, to);
+        }
+
+        @Override
+        boolean sortsFirst(Object source, int i, int j) {
+            return ((int[]) source)[i] <= ((int[]) array)[j];
+        }
+
+        @Override
+        void move(Object source, int i, int k) {
+            ((int[]) array)[k] = ((int[]) source)[i];
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static final class StringSort extends MergeSort {
+        StringSort(String[] array, String[] buffer,
+                int from, int to, int grain) {
+            super(array, buffer, from, to, grain);
+        }
+
+        @Override
+        MergeSort segment(int from, int to) {
+            return new StringSort((String[]) array, (String[]) buffer,
+                    from, to, grain);
+        }
+
+        @Override
+        void sortSegment() {
+            Arrays.sort((String[]) array, from, to);
+        }
+
+        @Override
+        boolean sortsFirst(Object source, int i, int j) {
+            return ((String[]) source)[i]
+                    .compareTo(((String[]) array)[j]) <= 0;
+        }
+
+        @Override
+        void move(Object source, int i, int k) {
+            ((String[]) array)[k] = ((String[]) source)[i];
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.redhat.ceylon.compiler.java.language;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.UnsupportedCharsetException;
+
+/**
+ * Helpers shared by the implementations of {@link BinaryResource}
+ */
+final class Resources {
+
+    private Resources() {}
+
+    /**
+     * Reads everything the given reader has left, and closes it
+     *
+     * @param sizeHint The size of the content in bytes, which is
+     * at least the number of chars of most text
+     */
+    static java.lang.String readFully(Reader reader, long sizeHint) throws IOException {
+        try {
+            int capacity = (int)Math.min(Math.max(sizeHint, 16), Integer.MAX_VALUE - 8);
+            java.lang.StringBuilder sb = new java.lang.StringBuilder(capacity);
+            char[] buf = new char[16384];
+            int read;
+            // unlike ready(), read() only returns -1 at the end
+            while ((read = reader.read(buf)) >= 0) {
+                sb.append(buf, 0, read);
+            }
+            return sb.toString();
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * Reads everything the given channel has left into a read-only
+     * direct buffer, without closing it
+     *
+     * @param size The size of the content in bytes, or {@code -1}
+     * if it isn't known, like the size of some zip entries
+     */
+    static ByteBuffer readFully(ReadableByteChannel channel, long size) throws IOException {
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Resource is too large to be read into a buffer: " + size + " bytes");
+        }
+        ByteBuffer buffer = ByteBuffer.allocateDirect(size >= 0 ? (int)size : 16384);
+        while (channel.read(buffer) >= 0) {
+            if (!buffer.hasRemaining()) {
+                if (size >= 0) {
+                    break;
+                }
+                buffer.flip();
+                buffer = ByteBuffer.allocateDirect(buffer.capacity() * 2).put(buffer);
+            }
+        }
+        buffer.flip();
+        return buffer.asReadOnlyBuffer();
+    }
+
+    /**
+     * Decodes the remaining content of the given buffer, replacing
+     * malformed input like an {@link java.io.InputStreamReader} does
+     */
+    static java.lang.String decode(ByteBuffer bytes, java.lang.String encoding) throws IOException {
+        return charset(encoding).newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE)
+                .decode(bytes)
+                .toString();
+    }
+
+    private static Charset charset(java.lang.String encoding) throws UnsupportedEncodingException {
+        try {
+            return Charset.forName(encoding);
+        } catch (IllegalCharsetNameException | UnsupportedCharsetException ex) {
+            throw new UnsupportedEncodingException(encoding);
+        }
+    }
+}
@@ -1,11 +1,16 @@
 package com.redhat.ceylon.compiler.java.language;
 
+import java.util.Arrays;
+
 import ceylon.language.Boolean;
 import ceylon.language.Callable;
 import ceylon.language.Character;
+import ceylon.language.Empty;
+import ceylon.language.Iterable;
 import ceylon.language.Iterator;
 import ceylon.language.Null;
 import ceylon.language.String;
+import ceylon.language.Tuple;
 import ceylon.language.finished_;
 import ceylon.language.impl.BaseIterable;
 import ceylon.language.impl.BaseIterator;
@@ -25,6 +30,8 @@ extends BaseIterable<String,java.lang.Object> {
     
     private final java.lang.String str;
     private final Callable<? extends Boolean> separator;
+    /** The separator, if it's one we can test without boxing */
+    private final Separator knownSeparator;
     private final boolean keepSeparators;
     private final boolean groupSeparators;
 
@@ -35,6 +42,8 @@ extends BaseIterable<String,java.lang.Object> {
         super(String.$TypeDescriptor$, Null.$TypeDescriptor$);
         this.str = str;
         this.separator = separator;
+        this.knownSeparator = separator instanceof Separator ? 
+                (Separator) separator : null;
         this.keepSeparators = keepSeparators;
         this.groupSeparators = groupSeparators;
     }
@@ -56,8 +65,25 @@ extends BaseIterable<String,java.lang.Object> {
         private boolean first = true;
         private boolean lastTokenWasSeparator = false;
 
+        /** The bounds of the current token, set by advance() */
+        protected int tokenStart;
+        protected int tokenEnd;
+
         @Override
         public java.lang.Object next() {
+            if (!advance()) {
+                return finished_.get_();
+            }
+            return String.instance(tokenStart == tokenEnd ? "" :
+                    str.substring(tokenStart, tokenEnd));
+        }
+
+        /**
+         * Moves to the next token, whose bounds are then given by
+         * tokenStart and tokenEnd, returning false if there are none
+         * left
+         */
+        boolean advance() {
             if (!eof()) {
                 int start = index;
                 // if we start with a separator, or if we returned a separator the last time
@@ -66,7 +92,7 @@ extends BaseIterable<String,java.lang.Object> {
                         && peekSeparator()) {
                     first = false;
                     lastTokenWasSeparator = false;
-                    return String.instance("");
+                    return token(start, start);
                 }
                 // are we looking at a separator
                 if (eatSeparator()) {
@@ -77,7 +103,7 @@ extends BaseIterable<String,java.lang.Object> {
                     // do we return them?
                     if (keepSeparators) {
                         lastTokenWasSeparator = true;
-                        return String.instance(str.substring(start, index));
+                        return token(start, index);
                     }
                     // keep going and eat the next word
                     start = index;
@@ -87,19 +113,25 @@ extends BaseIterable<String,java.lang.Object> {
                     eatChar();
                 }
                 lastTokenWasSeparator = false;
-                return String.instance(str.substring(start, index));
+                return token(start, index);
             }
             else if (lastTokenWasSeparator) {
                 // we're missing a last empty token before 
                 // the EOF because the string ended with a 
                 // returned separator
                 lastTokenWasSeparator = false;
-                return String.instance("");
+                return token(index, index);
             }
             else {
-                return finished_.get_();
+                return false;
             }
         }
+
+        private boolean token(int start, int end) {
+            tokenStart = start;
+            tokenEnd = end;
+            return true;
+        }
         
         protected boolean eof() {
             return index >= str.length();
@@ -131,7 +163,28 @@ extends BaseIterable<String,java.lang.Object> {
 
     @Override
     public Iterator<? extends String> iterator() {
-
+        return tokenIterator();
+    }
+    
+    private TokenIterator tokenIterator() {
+        final Separator known = knownSeparator;
+        if (known != null) {
+            return new TokenIterator() {
+                protected final boolean peekSeparator() {
+                    if (eof()) return false;
+                    return known.matches(str.codePointAt(index));
+                }
+            };
+        }
+        if (separator instanceof AbstractCallable) {
+            final AbstractCallable<?> predicate = (AbstractCallable<?>) separator;
+            return new TokenIterator() {
+                protected final boolean peekSeparator() {
+                    if (eof()) return false;
+                    return predicate.$call$booleanChar(str.codePointAt(index));
+                }
+            };
+        }
         return new TokenIterator() {
             protected final boolean peekSeparator() {
                 if (eof()) return false;
@@ -139,7 +192,52 @@ extends BaseIterable<String,java.lang.Object> {
                 return separator.$call$(Character.instance(charCodePoint)).booleanValue();
             }
         };
-
+    }
+    
+    /**
+     * Iterates the tokens as offsets into the split string rather
+     * than as new strings, so that callers can use
+     * {@link java.lang.String#regionMatches} or copy the characters
+     * into their own buffer without allocating anything per token.
+     */
+    @Ignore
+    public Offsets offsets() {
+        return new Offsets(tokenIterator());
+    }
+    
+    /**
+     * A cursor over the tokens of a {@link StringTokens}: each call
+     * to {@link #next()} which returns true moves to the next token,
+     * which is the part of {@link #getString()} between
+     * {@link #getStart()} and {@link #getEnd()}.
+     */
+    @Ignore
+    public final class Offsets {
+        private final TokenIterator iterator;
+        
+        private Offsets(TokenIterator iterator) {
+            this.iterator = iterator;
+        }
+        
+        /** Moves to the next token, returning false if there are none left */
+        public boolean next() {
+            return iterator.advance();
+        }
+        
+        /** The offset of the first char of the current token */
+        public int getStart() {
+            return iterator.tokenStart;
+        }
+        
+        /** The offset after the last char of the current token */
+        public int getEnd() {
+            return iterator.tokenEnd;
+        }
+        
+        /** The string being split */
+        public java.lang.String getString() {
+            return str;
+        }
     }
 
     @Override
@@ -153,4 +251,127 @@ extends BaseIterable<String,java.lang.Object> {
         return TypeDescriptor.klass(StringTokens.class);
     }
     
+    /** The whitespace predicate, which split() uses by default */
+    @Ignore
+    public static final Separator WHITESPACE = new Separator("whitespace") {
+        @Override
+        boolean matches(int codePoint) {
+            return java.lang.Character.isWhitespace(codePoint);
+        }
+    };
+    
+    /** A predicate matching just the given character */
+    @Ignore
+    public static Separator separator(final int codePoint) {
+        return new Separator("separator") {
+            @Override
+            boolean matches(int cp) {
+                return cp == codePoint;
+            }
+        };
+    }
+    
+    /**
+     * A predicate matching any of the characters of the given string,
+     * for {@link String#split(java.lang.String, Callable, boolean, boolean)}
+     */
+    @Ignore
+    public static Separator separators(java.lang.String characters) {
+        int[] codePoints = new int[characters.length()];
+        int count = 0;
+        for (int i = 0; i < characters.length();) {
+            int cp = characters.codePointAt(i);
+            codePoints[count++] = cp;
+            i += java.lang.Character.charCount(cp);
+        }
+        return separators(codePoints, count);
+    }
+    
+    /** A predicate matching any of the given {@code {Character*}} */
+    @Ignore
+    public static Separator separators(Iterable<? extends Character, ?> characters) {
+        int[] codePoints = new int[16];
+        int count = 0;
+        Iterator<? extends Character> it = characters.iterator();
+        java.lang.Object ch;
+        while ((ch = it.next()) != finished_.get_()) {
+            if (count == codePoints.length) {
+                codePoints = Arrays.copyOf(codePoints, count * 2);
+            }
+            codePoints[count++] = ((Character) ch).intValue();
+        }
+        return separators(codePoints, count);
+    }
+    
+    private static Separator separators(int[] codePoints, int count) {
+        if (count == 1) {
+            return separator(codePoints[0]);
+        }
+        // ASCII characters are looked up in a bitmap, anything
+        // else with a binary search
+        long lowAscii = 0;
+        long highAscii = 0;
+        int others = 0;
+        for (int i = 0; i < count; i++) {
+            int cp = codePoints[i];
+            if (cp < 64) {
+                lowAscii |= 1L << cp;
+            }
+            else if (cp < 128) {
+                highAscii |= 1L << (cp - 64);
+            }
+            else {
+                codePoints[others++] = cp;
+            }
+        }
+        final long low = lowAscii;
+        final long high = highAscii;
+        final int[] sorted = Arrays.copyOf(codePoints, others);
+        Arrays.sort(sorted);
+        return new Separator("separators") {
+            @Override
+            boolean matches(int cp) {
+                if (cp < 64) {
+                    return (low & (1L << cp)) != 0;
+                }
+                else if (cp < 128) {
+                    return (high & (1L << (cp - 64))) != 0;
+                }
+                else {
+                    return sorted.length != 0 
+                            && Arrays.binarySearch(sorted, cp) >= 0;
+                }
+            }
+        };
+    }
+    
+    /**
+     * A separator predicate which {@link StringTokens} recognizes, 
+     * and tests on the code points of the split string without 
+     * boxing them into {@link Character}s. It's still an ordinary
+     * {@link Callable} for everyone else.
+     */
+    @Ignore
+    public static abstract class Separator extends AbstractCallable<Boolean> {
+        
+        Separator(java.lang.String string) {
+            super(Boolean.$TypeDescriptor$, 
+                    TypeDescriptor.klass(Tuple.class, Character.$TypeDescriptor$, 
+                            Character.$TypeDescriptor$, Empty.$TypeDescriptor$),
+                    string, (short)-1);
+        }
+        
+        abstract boolean matches(int codePoint);
+        
+        @Override
+        public Boolean $call$(java.lang.Object ch) {
+            return Boolean.instance(matches(((Character) ch).intValue()));
+        }
+        
+        @Override
+        public boolean $call$booleanChar(int codePoint) {
+            return matches(codePoint);
+        }
+    }
+    
 }
\ No newline at end of file
@@ -1,9 +1,15 @@
 package com.redhat.ceylon.compiler.java.language;
 
 import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 
@@ -19,7 +25,7 @@ import com.redhat.ceylon.compiler.java.metadata.SatisfiedTypes;
 @SatisfiedTypes({
     "ceylon.language::Resource"
 })
-public class ZipResource implements Resource {
+public class ZipResource implements Resource, BinaryResource {
 
     @Ignore
     protected final ceylon.language.Resource$impl $ceylon$language$Resource$this;
@@ -81,24 +87,67 @@ public class ZipResource implements Resource {
 
     @Override
     public java.lang.String textContent(java.lang.String enc) {
-        try (ZipFile zip = new ZipFile(zipFile)) {
-            final ZipEntry e = zip.getEntry(path);
-            try (final InputStream stream = zip.getInputStream(e);
-                    final InputStreamReader reader = new InputStreamReader(stream, enc)){
-                final char[] buf = new char[16384];
-                final StringBuilder sb = new StringBuilder();
-                while (reader.ready()) {
-                    int read = reader.read(buf);
-                    sb.append(buf, 0, read);
-                }
-                return sb.toString();
-            }
+        try {
+            return Resources.readFully(openReader(enc), getSize());
         } catch (IOException ex) {
             throw new ceylon.language.Exception(new ceylon.language.String(
                     "Reading text content of CAR resource " + getUri()), ex);
         }
     }
-    
+
+    /**
+     * The content of the entry, inflated into a direct buffer, since
+     * a compressed entry can't be mapped
+     */
+    @Ignore @Override
+    public ByteBuffer byteContent() {
+        try (ReadableByteChannel channel = Channels.newChannel(openStream())) {
+            return Resources.readFully(channel, getSize());
+        } catch (IOException ex) {
+            throw new ceylon.language.Exception(new ceylon.language.String(
+                    "Reading content of CAR resource " + getUri()), ex);
+        }
+    }
+
+    /**
+     * Opens a stream which inflates the entry as it's read, and
+     * closes the CAR when it's closed
+     */
+    @Ignore @Override
+    public InputStream openStream() throws IOException {
+        final ZipFile zip = new ZipFile(zipFile);
+        try {
+            final ZipEntry e = zip.getEntry(path);
+            if (e == null) {
+                throw new FileNotFoundException(getUri());
+            }
+            return new FilterInputStream(zip.getInputStream(e)) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        zip.close();
+                    }
+                }
+            };
+        } catch (IOException | RuntimeException ex) {
+            zip.close();
+            throw ex;
+        }
+    }
+
+    @Ignore @Override
+    public Reader openReader(java.lang.String encoding) throws IOException {
+        InputStream stream = openStream();
+        try {
+            return new InputStreamReader(stream, encoding);
+        } catch (IOException ex) {
+            stream.close();
+            throw ex;
+        }
+    }
+
     @Override
     public String toString() {
         return $ceylon$language$Resource$this.toString();
@@ -0,0 +1,304 @@
+package com.redhat.ceylon.compiler.java.runtime;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.jar.Attributes;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import com.redhat.ceylon.compiler.java.codegen.Naming;
+import com.redhat.ceylon.compiler.java.tools.JarEntryManifestFileObject.OsgiManifest;
+
+/**
+ * <p>
+ * The module descriptors found in the jars of a {@link Main.ClassPath}, which
+ * lets it skip the jars which cannot contain a module without opening them.
+ * </p>
+ * <p>
+ * Jars are indexed in parallel, and if the <code>ceylon.classpath.cache</code>
+ * system property names a file, the index is saved to it and reused by later
+ * runs for every jar whose path, size and modification time are unchanged.
+ * </p>
+ */
+class ClassPathIndex {
+
+    private static final String MAGIC = "ceylon-classpath-index";
+    private static final int VERSION = 1;
+
+    /**
+     * The descriptor entries of a jar, which are the only entries
+     * {@link Main.ClassPath} looks for
+     */
+    static class Jar {
+        final String path;
+        final long length;
+        final long lastModified;
+        final Set<String> descriptors;
+        final String bundleName;
+        final String bundleVersion;
+
+        Jar(String path, long length, long lastModified, Set<String> descriptors,
+                String bundleName, String bundleVersion) {
+            this.path = path;
+            this.length = length;
+            this.lastModified = lastModified;
+            this.descriptors = descriptors;
+            this.bundleName = bundleName;
+            this.bundleVersion = bundleVersion;
+        }
+
+        boolean isUpToDate(File file) {
+            return file.length() == length
+                    && file.lastModified() == lastModified;
+        }
+
+        boolean hasEntry(String name) {
+            return descriptors.contains(name);
+        }
+    }
+
+    private final Map<String, Jar> jars;
+
+    private ClassPathIndex(Map<String, Jar> jars) {
+        this.jars = jars;
+    }
+
+    /**
+     * Returns the index of the given jar, or null if it could not
+     * be indexed, in which case it has to be opened
+     */
+    Jar get(File file) {
+        return jars.get(file.getPath());
+    }
+
+    /**
+     * Indexes the given jars, reusing and updating the given cache file
+     * if it is not null
+     */
+    static ClassPathIndex load(List<File> files, File cache) {
+        Map<String, Jar> cached = cache != null ? read(cache) : new HashMap<String, Jar>();
+        Map<String, Jar> jars = new HashMap<String, Jar>();
+        List<File> missing = new ArrayList<File>();
+        for(File file : files){
+            Jar jar = cached.get(file.getPath());
+            if(jar != null && jar.isUpToDate(file))
+                jars.put(jar.path, jar);
+            else
+                missing.add(file);
+        }
+        if(!missing.isEmpty()){
+            for(Jar jar : index(missing)){
+                jars.put(jar.path, jar);
+                cached.put(jar.path, jar);
+            }
+            if(cache != null)
+                write(cache, cached.values());
+        }
+        return new ClassPathIndex(jars);
+    }
+
+    private static List<Jar> index(List<File> files) {
+        List<Jar> ret = new ArrayList<Jar>(files.size());
+        int threads = Math.min(files.size(), Runtime.getRuntime().availableProcessors());
+        if(threads <= 1){
+            for(File file : files){
+                Jar jar = indexOrNull(file);
+                if(jar != null)
+                    ret.add(jar);
+            }
+            return ret;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(threads, new ThreadFactory(){
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "Ceylon class path indexer");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        try{
+            List<Future<Jar>> futures = new ArrayList<Future<Jar>>(files.size());
+            for(final File file : files){
+                futures.add(executor.submit(new Callable<Jar>(){
+                    @Override
+                    public Jar call() {
+                        return indexOrNull(file);
+                    }
+                }));
+            }
+            for(Future<Jar> future : futures){
+                Jar jar = future.get();
+                if(jar != null)
+                    ret.add(jar);
+            }
+            return ret;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            // jars we have not indexed will just be opened
+            return ret;
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }finally{
+            executor.shutdownNow();
+        }
+    }
+
+    private static Jar indexOrNull(File file) {
+        try {
+            return index(file);
+        } catch (IOException e) {
+            // faulty jar: ClassPath will report it when it opens it
+            return null;
+        }
+    }
+
+    static Jar index(File file) throws IOException {
+        long length = file.length();
+        long lastModified = file.lastModified();
+        String descriptorSuffix = "/"+Naming.MODULE_DESCRIPTOR_CLASS_NAME+".class";
+        Set<String> descriptors = new HashSet<String>();
+        String bundleName = null;
+        String bundleVersion = null;
+        ZipFile zipFile = new ZipFile(file);
+        try{
+            Enumeration<? extends ZipEntry> entries = zipFile.entries();
+            while(entries.hasMoreElements()){
+                String name = entries.nextElement().getName();
+                if(name.endsWith(descriptorSuffix)
+                        || name.startsWith("META-INF/maven/") && name.endsWith("/pom.xml")
+                        || name.startsWith("META-INF/jbossmodules/"))
+                    descriptors.add(name);
+            }
+            ZipEntry manifestEntry = zipFile.getEntry(JarFile.MANIFEST_NAME);
+            if(manifestEntry != null){
+                descriptors.add(JarFile.MANIFEST_NAME);
+                InputStream inputStream = zipFile.getInputStream(manifestEntry);
+                try{
+                    Attributes attributes = new Manifest(inputStream).getMainAttributes();
+                    bundleName = attributes.getValue(OsgiManifest.Bundle_SymbolicName);
+                    bundleVersion = attributes.getValue(OsgiManifest.Bundle_Version);
+                }finally{
+                    inputStream.close();
+                }
+            }
+        }finally{
+            zipFile.close();
+        }
+        return new Jar(file.getPath(), length, lastModified, descriptors, bundleName, bundleVersion);
+    }
+
+    private static Map<String, Jar> read(File cache) {
+        Map<String, Jar> ret = new HashMap<String, Jar>();
+        if(!cache.isFile())
+            return ret;
+        try{
+            DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(cache)));
+            try{
+                if(!MAGIC.equals(in.readUTF()) || in.readInt() != VERSION)
+                    return ret;
+                int count = in.readInt();
+                for(int i=0;i<count;i++){
+                    String path = in.readUTF();
+                    long length = in.readLong();
+                    long lastModified = in.readLong();
+                    String bundleName = readNullableUTF(in);
+                    String bundleVersion = readNullableUTF(in);
+                    int descriptorCount = in.readInt();
+                    Set<String> descriptors = new HashSet<String>();
+                    for(int j=0;j<descriptorCount;j++)
+                        descriptors.add(in.readUTF());
+                    ret.put(path, new Jar(path, length, lastModified, descriptors, bundleName, bundleVersion));
+                }
+            }finally{
+                in.close();
+            }
+        }catch(IOException e){
+            // corrupt or truncated cache: start again
+            ret.clear();
+        }
+        return ret;
+    }
+
+    private static void write(File cache, Iterable<Jar> jars) {
+        File parent = cache.getAbsoluteFile().getParentFile();
+        try{
+            if(parent != null)
+                parent.mkdirs();
+            // write to a temporary file first so that concurrent runs never see half the index
+            File tmp = File.createTempFile("ceylon-classpath-", ".tmp", parent);
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)));
+            try{
+                List<Jar> list = new ArrayList<Jar>();
+                for(Jar jar : jars)
+                    list.add(jar);
+                out.writeUTF(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(list.size());
+                for(Jar jar : list){
+                    out.writeUTF(jar.path);
+                    out.writeLong(jar.length);
+                    out.writeLong(jar.lastModified);
+                    writeNullableUTF(out, jar.bundleName);
+                    writeNullableUTF(out, jar.bundleVersion);
+                    out.writeInt(jar.descriptors.size());
+                    for(String descriptor : jar.descriptors)
+                        out.writeUTF(descriptor);
+                }
+            }finally{
+                out.close();
+            }
+            if(!tmp.renameTo(cache)){
+                cache.delete();
+                if(!tmp.renameTo(cache))
+                    tmp.delete();
+            }
+        }catch(IOException|SecurityException e){
+            // the cache is just an optimisation
+        }
+    }
+
+    private static String readNullableUTF(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeNullableUTF(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if(value != null)
+            out.writeUTF(value);
+    }
+
+    /**
+     * The cache file named by the <code>ceylon.classpath.cache</code> system
+     * property, or null
+     */
+    static File getCacheFile() {
+        try{
+            String path = System.getProperty("ceylon.classpath.cache");
+            return path != null && !path.isEmpty() ? new File(path) : null;
+        }catch(SecurityException e){
+            return null;
+        }
+    }
+}
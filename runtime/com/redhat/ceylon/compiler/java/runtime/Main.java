@@ -67,6 +67,12 @@ import com.redhat.ceylon.compiler.java.tools.JarEntryManifestFileObject.OsgiMani
  * </p>
  * 
  * <p>
+ * Finding modules means looking for module descriptors in every jar of the classpath. If the
+ * <code>ceylon.classpath.cache</code> system property names a file, the list of descriptors of
+ * each jar is saved to it, and reused at the next start for every jar which has not changed.
+ * </p>
+ * 
+ * <p>
  * <b>WARNING:</b> this API is not supported and will be superseded by an official API later.
  * </p>
  *
@@ -246,6 +252,8 @@ public class Main {
 
         private List<File> potentialJars = new LinkedList<File>();
         private Map<String,Module> modules = new HashMap<String,Module>();
+        private final File indexCache;
+        private ClassPathIndex index;
         private static DependencyResolver MavenResolver = getResolver(Configuration.MAVEN_RESOLVER_CLASS);
         
         ClassPath(){
@@ -257,11 +265,24 @@ public class Main {
                     potentialJars.add(entry);
                 }
             }
+            this.indexCache = ClassPathIndex.getCacheFile();
         }
         
         // for tests
         ClassPath(List<File> potentialJars){
+            this(potentialJars, ClassPathIndex.getCacheFile());
+        }
+
+        // for tests
+        ClassPath(List<File> potentialJars, File indexCache){
             this.potentialJars = potentialJars;
+            this.indexCache = indexCache;
+        }
+
+        private ClassPathIndex getIndex() {
+            if(index == null)
+                index = ClassPathIndex.load(potentialJars, indexCache);
+            return index;
         }
         
         private static DependencyResolver getResolver(String className) {
@@ -305,6 +326,10 @@ public class Main {
         }
         
         private Module loadJar(File file, String name, String version) throws IOException {
+            ClassPathIndex.Jar indexedJar = getIndex().get(file);
+            // jars which could not be indexed are opened to report the problem
+            if(indexedJar != null && !mayContain(indexedJar, name, version))
+                return null;
             ZipFile zipFile = new ZipFile(file);
             try{
                 // Modules that have a : MUST be Maven modules
@@ -371,6 +396,44 @@ public class Main {
             }
         }
 
+        /**
+         * Returns false if the given jar has none of the descriptors which 
+         * {@link #loadJar(File, String, String)} looks for, in which case 
+         * there is no need to open it.
+         */
+        private static boolean mayContain(ClassPathIndex.Jar jar, String name, String version) {
+            int mavenSeparator = name.indexOf(":");
+            if(mavenSeparator != -1){
+                String groupId = name.substring(0, mavenSeparator);
+                String artifactId = name.substring(mavenSeparator+1);
+                if(jar.hasEntry(String.format("META-INF/maven/%s/%s/pom.xml", groupId, artifactId)))
+                    return true;
+            }
+            String ceylonPath = name.replace('.', '/');
+            if(jar.hasEntry(ceylonPath+"/"+Naming.MODULE_DESCRIPTOR_CLASS_NAME+".class"))
+                return true;
+            if(name.equals(com.redhat.ceylon.compiler.typechecker.model.Module.DEFAULT_MODULE_NAME)
+                    && version == null
+                    && new File(jar.path).getName().equalsIgnoreCase("default.car"))
+                return true;
+            if(jar.hasEntry("META-INF/jbossmodules/"+ceylonPath+"/"+version+"/module.xml")
+                    || jar.hasEntry("META-INF/jbossmodules/"+ceylonPath+"/"+version+"/module.properties"))
+                return true;
+            if(MavenResolver != null){
+                int lastDot = name.lastIndexOf('.');
+                while(lastDot != -1){
+                    String groupId = name.substring(0, lastDot);
+                    String artifactId = name.substring(lastDot+1);
+                    if(jar.hasEntry(String.format("META-INF/maven/%s/%s/pom.xml", groupId, artifactId)))
+                        return true;
+                    lastDot = name.lastIndexOf('.', lastDot - 1);
+                }
+            }
+            return jar.hasEntry(JarFile.MANIFEST_NAME)
+                    && Objects.equals(name, jar.bundleName)
+                    && Objects.equals(version, jar.bundleVersion);
+        }
+
         private Module loadCeylonModuleCar(File file, ZipFile zipFile, ZipEntry moduleDescriptor, String name, String version) throws IOException {
             InputStream inputStream = zipFile.getInputStream(moduleDescriptor);
             try{
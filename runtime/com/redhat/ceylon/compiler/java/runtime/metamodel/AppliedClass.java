@@ -47,6 +47,7 @@ public class AppliedClass<Type, Arguments extends Sequential<? extends Object>>
     private int firstDefaulted = -1;
     private int variadicIndex = -1;
     private MethodHandle[] dispatch;
+    private final MethodHandleUtil.Spreaders spreaders = new MethodHandleUtil.Spreaders();
     private ceylon.language.meta.model.Type<?> container;
     private List<ProducedType> parameterProducedTypes;
     private Sequential<? extends ceylon.language.meta.model.Type<? extends Object>> parameterTypes;
@@ -370,10 +371,9 @@ public class AppliedClass<Type, Arguments extends Sequential<? extends Object>>
         } else {
             try {
                 if(firstDefaulted == -1)
-                    // FIXME: this does not do invokeExact and does boxing/widening
-                    return (Type)constructor.invokeWithArguments(args);
+                    return (Type)spreaders.get(constructor, dispatch, -1).invokeExact(args);
                 // FIXME: proper checks
-                return (Type)dispatch[args.length-firstDefaulted].invokeWithArguments(args);
+                return (Type)spreaders.get(constructor, dispatch, args.length-firstDefaulted).invokeExact(args);
             } catch (Throwable e) {
                 Util.rethrow(e);
                 return null;
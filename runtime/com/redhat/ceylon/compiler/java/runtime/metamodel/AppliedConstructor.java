@@ -58,6 +58,7 @@ public class AppliedConstructor<Type, Arguments extends Sequential<? extends Obj
     private int variadicIndex;
     private MethodHandle ctor;
     private MethodHandle[] dispatch;
+    private final MethodHandleUtil.Spreaders spreaders = new MethodHandleUtil.Spreaders();
     private Object instance;
     private ProducedType producedType;
     
@@ -384,10 +385,9 @@ public class AppliedConstructor<Type, Arguments extends Sequential<? extends Obj
         checkConstructor();
         try {
             if(firstDefaulted == -1)
-                // FIXME: this does not do invokeExact and does boxing/widening
-                return (Type)ctor.invokeWithArguments(args);
+                return (Type)spreaders.get(ctor, dispatch, -1).invokeExact(args);
             // FIXME: proper checks
-            return (Type)dispatch[args.length-firstDefaulted].invokeWithArguments(args);
+            return (Type)spreaders.get(ctor, dispatch, args.length-firstDefaulted).invokeExact(args);
         } catch (Throwable e) {
             Util.rethrow(e);
             return null;
@@ -46,6 +46,7 @@ public class AppliedFunction<Type, Arguments extends Sequential<? extends Object
     protected FreeFunction declaration;
     private MethodHandle method;
     private MethodHandle[] dispatch;
+    private final MethodHandleUtil.Spreaders spreaders = new MethodHandleUtil.Spreaders();
     private int firstDefaulted = -1;
     private int variadicIndex = -1;
     private ceylon.language.Map<? extends ceylon.language.meta.declaration.TypeParameter, ? extends ceylon.language.meta.model.Type<?>> typeArguments;
@@ -304,11 +305,10 @@ public class AppliedFunction<Type, Arguments extends Sequential<? extends Object
     public Type $call$(Object... args) {
         checkMethod();
         try {
-            // FIXME: this does not do invokeExact and does boxing/widening
             if(firstDefaulted == -1)
-                return (Type)method.invokeWithArguments(args);
+                return (Type)spreaders.get(method, dispatch, -1).invokeExact(args);
             // FIXME: proper checks
-            return (Type)dispatch[args.length-firstDefaulted].invokeWithArguments(args);
+            return (Type)spreaders.get(method, dispatch, args.length-firstDefaulted).invokeExact(args);
         } catch (Throwable e) {
             Util.rethrow(e);
             return null;
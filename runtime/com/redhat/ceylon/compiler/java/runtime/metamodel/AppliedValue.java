@@ -48,6 +48,7 @@ public class AppliedValue<Get, Set>
     @Ignore
     protected TypeDescriptor $reifiedSet;
     protected FreeValue declaration;
+    // both take the instance as first parameter, see createAccessors()
     private MethodHandle getter;
     private MethodHandle setter;
     private Object instance;
@@ -69,7 +70,43 @@ public class AppliedValue<Get, Set>
     }
 
     private void initField(Object instance, ProducedType valueType) {
-        com.redhat.ceylon.compiler.typechecker.model.Value decl = (com.redhat.ceylon.compiler.typechecker.model.Value) declaration.declaration;
+        MethodHandle[] accessors = declaration.getAccessors();
+        if(accessors == null){
+            com.redhat.ceylon.compiler.typechecker.model.Value decl = (com.redhat.ceylon.compiler.typechecker.model.Value) declaration.declaration;
+            java.lang.Class<?> instanceClass = getInstanceClass(decl, instance);
+            accessors = createAccessors(decl, instanceClass, valueType);
+            // those looked up on the instance class only work for that class
+            if(instanceClass == null)
+                declaration.setAccessors(accessors);
+        }
+        getter = accessors[0];
+        setter = accessors[1];
+    }
+
+    /**
+     * Returns the class of the given instance if the accessors have to be 
+     * looked up on it rather than on the declaring class, or null
+     */
+    private static java.lang.Class<?> getInstanceClass(com.redhat.ceylon.compiler.typechecker.model.Value decl, Object instance) {
+        if(decl instanceof JavaBeanValue
+                && Metamodel.getJavaClass((com.redhat.ceylon.compiler.typechecker.model.ClassOrInterface)decl.getContainer()) == ceylon.language.Throwable.class
+                && ("cause".equals(decl.getName())
+                        || "message".equals(decl.getName())))
+            return instance.getClass();
+        return null;
+    }
+
+    /**
+     * Returns the getter, of type {@code (Object)Object}, and the setter, of type
+     * {@code (Object,Object)void} or null if the value is not variable. Both take
+     * the instance as first parameter, which they ignore for toplevels and static 
+     * members, so that they can be created once and shared by every applied value 
+     * of the declaration.
+     */
+    private static MethodHandle[] createAccessors(com.redhat.ceylon.compiler.typechecker.model.Value decl, 
+                                                  java.lang.Class<?> instanceClass, ProducedType valueType) {
+        MethodHandle getter;
+        MethodHandle setter;
         if(decl instanceof JavaBeanValue){
             java.lang.Class<?> javaClass = Metamodel.getJavaClass((com.redhat.ceylon.compiler.typechecker.model.ClassOrInterface)decl.getContainer());
             if(javaClass == ceylon.language.Object.class
@@ -82,11 +119,8 @@ public class AppliedValue<Get, Set>
                 }else{
                     throw Metamodel.newModelError("Object/Basic/Identifiable member not supported: "+decl.getName());
                 }
-            } else if (javaClass == ceylon.language.Throwable.class) {
-                if("cause".equals(decl.getName())
-                        || "message".equals(decl.getName())){
-                    javaClass = instance.getClass();
-                }
+            } else if (instanceClass != null) {
+                javaClass = instanceClass;
             }
             String getterName = ((JavaBeanValue) decl).getGetterName();
             try {
@@ -100,15 +134,10 @@ public class AppliedValue<Get, Set>
                 getter = MethodHandles.lookup().unreflect(m);
                 java.lang.Class<?> getterType = m.getReturnType();
                 getter = MethodHandleUtil.boxReturnValue(getter, getterType, valueType);
-                if(instance != null 
-                        // XXXArray.getArray is static but requires an instance as first param
-                        && (isJavaArray || !Modifier.isStatic(m.getModifiers()))) {
-                    getter = getter.bindTo(instance);
-                }
-                // we need to cast to Object because this is what comes out when calling it in $call
-                getter = getter.asType(MethodType.methodType(Object.class));
+                // XXXArray.getArray is static but requires an instance as first param
+                getter = adaptGetter(getter, isJavaArray || !Modifier.isStatic(m.getModifiers()));
 
-                initSetter(decl, javaClass, getterType, instance, valueType);
+                setter = createSetter(decl, javaClass, getterType, valueType);
             } catch (NoSuchMethodException | SecurityException | IllegalAccessException e) {
                 throw Metamodel.newModelError("Failed to find getter method "+getterName+" for: "+decl, e);
             }
@@ -124,10 +153,9 @@ public class AppliedValue<Get, Set>
                 getter = MethodHandles.lookup().unreflect(m);
                 java.lang.Class<?> getterType = m.getReturnType();
                 getter = MethodHandleUtil.boxReturnValue(getter, getterType, valueType);
-                // we need to cast to Object because this is what comes out when calling it in $call
-                getter = getter.asType(MethodType.methodType(Object.class));
+                getter = adaptGetter(getter, false);
 
-                initSetter(decl, javaClass, getterType, null, valueType);
+                setter = createSetter(decl, javaClass, getterType, valueType);
             } catch (NoSuchMethodException | SecurityException | IllegalAccessException e) {
                 throw Metamodel.newModelError("Failed to find getter method "+getterName+" for: "+decl, e);
             }
@@ -142,10 +170,8 @@ public class AppliedValue<Get, Set>
                     java.lang.Class<?> getterType = method.getReturnType();
                     getter = MethodHandleUtil.boxReturnValue(getter, getterType, valueType);
                     // this one is static but requires an instance a first param
-                    if(instance != null)
-                        getter = getter.bindTo(instance);
-                    // we need to cast to Object because this is what comes out when calling it in $call
-                    getter = getter.asType(MethodType.methodType(Object.class));
+                    getter = adaptGetter(getter, true);
+                    setter = null;
                 } catch (NoSuchMethodException | SecurityException | IllegalAccessException e) {
                     throw Metamodel.newModelError("Failed to find Array.getLength method for: "+decl, e);
                 }
@@ -157,34 +183,41 @@ public class AppliedValue<Get, Set>
                     getter = MethodHandles.lookup().unreflectGetter(f);
                     java.lang.Class<?> getterType = f.getType();
                     getter = MethodHandleUtil.boxReturnValue(getter, getterType, valueType);
-                    if(instance != null && !Modifier.isStatic(f.getModifiers()))
-                        getter = getter.bindTo(instance);
-                    // we need to cast to Object because this is what comes out when calling it in $call
-                    getter = getter.asType(MethodType.methodType(Object.class));
+                    getter = adaptGetter(getter, !Modifier.isStatic(f.getModifiers()));
 
-                    initSetter(decl, javaClass, getterType, instance, valueType);
+                    setter = createSetter(decl, javaClass, getterType, valueType);
                 } catch (NoSuchFieldException | SecurityException | IllegalAccessException e) {
                     throw Metamodel.newModelError("Failed to find field "+fieldName+" for: "+decl, e);
                 }
             }
         }else
             throw Metamodel.newModelError("Unsupported attribute type: "+decl);
+        return new MethodHandle[]{ getter, setter };
     }
 
-    private void initSetter(com.redhat.ceylon.compiler.typechecker.model.Value decl, java.lang.Class<?> javaClass, 
-                            java.lang.Class<?> getterReturnType, Object instance, ProducedType valueType) {
+    /**
+     * Adapts the given getter to {@code (Object)Object}, ignoring the instance
+     * if it doesn't take one
+     */
+    private static MethodHandle adaptGetter(MethodHandle getter, boolean takesInstance) {
+        // we need to cast to Object because this is what comes out when calling it in $call
+        if(takesInstance)
+            return getter.asType(MethodType.methodType(Object.class, Object.class));
+        getter = getter.asType(MethodType.methodType(Object.class));
+        return MethodHandles.dropArguments(getter, 0, Object.class);
+    }
+
+    private static MethodHandle createSetter(com.redhat.ceylon.compiler.typechecker.model.Value decl, java.lang.Class<?> javaClass, 
+                                             java.lang.Class<?> getterReturnType, ProducedType valueType) {
         if(!decl.isVariable())
-            return;
+            return null;
         if(decl instanceof JavaBeanValue){
             String setterName = ((JavaBeanValue) decl).getSetterName();
             try {
                 Method m = javaClass.getMethod(setterName, getterReturnType);
                 m.setAccessible(true);
-                setter = MethodHandles.lookup().unreflect(m);
-                if(instance != null && !Modifier.isStatic(m.getModifiers()))
-                    setter = setter.bindTo(instance);
-                setter = setter.asType(MethodType.methodType(void.class, getterReturnType));
-                setter = MethodHandleUtil.unboxArguments(setter, 0, 0, new java.lang.Class[]{getterReturnType}, Arrays.asList(valueType));
+                MethodHandle setter = MethodHandles.lookup().unreflect(m);
+                return adaptSetter(setter, !Modifier.isStatic(m.getModifiers()), getterReturnType, valueType);
             } catch (NoSuchMethodException | SecurityException | IllegalAccessException e) {
                 throw Metamodel.newModelError("Failed to find setter method "+setterName+" for: "+decl, e);
             }
@@ -194,9 +227,8 @@ public class AppliedValue<Get, Set>
             try {
                 Method m = javaClass.getMethod(setterName, getterReturnType);
                 m.setAccessible(true);
-                setter = MethodHandles.lookup().unreflect(m);
-                setter = setter.asType(MethodType.methodType(void.class, getterReturnType));
-                setter = MethodHandleUtil.unboxArguments(setter, 0, 0, new java.lang.Class[]{getterReturnType}, Arrays.asList(valueType));
+                MethodHandle setter = MethodHandles.lookup().unreflect(m);
+                return adaptSetter(setter, false, getterReturnType, valueType);
             } catch (NoSuchMethodException | SecurityException | IllegalAccessException e) {
                 throw Metamodel.newModelError("Failed to find setter method "+setterName+" for: "+decl, e);
             }
@@ -205,11 +237,8 @@ public class AppliedValue<Get, Set>
             try {
                 Field f = javaClass.getField(fieldName);
                 f.setAccessible(true);
-                setter = MethodHandles.lookup().unreflectSetter(f);
-                if(instance != null && !Modifier.isStatic(f.getModifiers()))
-                    setter = setter.bindTo(instance);
-                setter = setter.asType(MethodType.methodType(void.class, getterReturnType));
-                setter = MethodHandleUtil.unboxArguments(setter, 0, 0, new java.lang.Class[]{getterReturnType}, Arrays.asList(valueType));
+                MethodHandle setter = MethodHandles.lookup().unreflectSetter(f);
+                return adaptSetter(setter, !Modifier.isStatic(f.getModifiers()), getterReturnType, valueType);
             } catch (NoSuchFieldException | SecurityException | IllegalAccessException e) {
                 throw Metamodel.newModelError("Failed to find field "+fieldName+" for: "+decl, e);
             }
@@ -217,6 +246,21 @@ public class AppliedValue<Get, Set>
             throw Metamodel.newModelError("Unsupported attribute type: "+decl);
     }
 
+    /**
+     * Adapts the given setter to {@code (Object,Object)void}, unboxing the new
+     * value and ignoring the instance if it doesn't take one
+     */
+    private static MethodHandle adaptSetter(MethodHandle setter, boolean takesInstance, 
+                                            java.lang.Class<?> getterReturnType, ProducedType valueType) {
+        if(takesInstance){
+            setter = setter.asType(MethodType.methodType(void.class, Object.class, getterReturnType));
+            return MethodHandleUtil.unboxArguments(setter, 0, 1, new java.lang.Class[]{getterReturnType}, Arrays.asList(valueType));
+        }
+        setter = setter.asType(MethodType.methodType(void.class, getterReturnType));
+        setter = MethodHandleUtil.unboxArguments(setter, 0, 0, new java.lang.Class[]{getterReturnType}, Arrays.asList(valueType));
+        return MethodHandles.dropArguments(setter, 0, Object.class);
+    }
+
     @Override
     @TypeInfo("ceylon.language.meta.declaration::ValueDeclaration")
     public ceylon.language.meta.declaration.ValueDeclaration getDeclaration() {
@@ -228,7 +272,7 @@ public class AppliedValue<Get, Set>
         if($reifiedGet.equals(null_.$TypeDescriptor$))
             return null;
         try {
-            return (Get) getter.invokeExact();
+            return (Get) getter.invokeExact(instance);
         } catch (Throwable e) {
             Util.rethrow(e);
             return null;
@@ -240,7 +284,7 @@ public class AppliedValue<Get, Set>
         if(!declaration.getVariable())
             throw new MutationException("Value is not mutable");
         try {
-            setter.invokeExact(value);
+            setter.invokeExact(instance, value);
             return null;
         } catch (Throwable e) {
             Util.rethrow(e);
@@ -0,0 +1,221 @@
+package com.redhat.ceylon.compiler.java.runtime.metamodel;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.redhat.ceylon.compiler.java.runtime.model.ConcurrentWeakKeyMap;
+import com.redhat.ceylon.compiler.java.runtime.model.StripedCounter;
+
+/**
+ * A concurrent cache from type checker model objects to the
+ * runtime model objects created for them, whose entries are
+ * retained for as long as the {@link ClassLoader} of the
+ * module they belong to.
+ *
+ * <p>Unlike a {@link MetamodelCache}, it never evicts an
+ * entry which may still be used: runtime declarations,
+ * packages and modules must stay unique, so that they may be
+ * compared with {@code ===}, and so that the state they cache
+ * isn't duplicated.</p>
+ *
+ * <p>Keys and values usually reference the classes of their
+ * module, and through them its class loader, so the entries
+ * of a class loader are only referenced from that class
+ * loader itself, through a {@link ClassValue} of a proxy
+ * class it defines. The cache only references their keys and
+ * values weakly, so that nothing it holds keeps the class
+ * loader alive, and its entries are collected along with it
+ * once its module has been unloaded, and counted as evicted
+ * on the next {@link #put(Object, Object, ClassLoader)}.
+ * Entries without a class loader, like those of the language
+ * module and the JDK, are retained until the cache is
+ * cleared.</p>
+ *
+ * <p>{@link #get(Object)} never takes a lock.</p>
+ *
+ * @param <K> The key type
+ * @param <V> The value type
+ */
+public final class ClassLoaderCache<K, V> implements MetamodelCacheMBean {
+
+    /** Counts the entries of a class loader until it is collected */
+    private static final class LoaderReference extends WeakReference<ClassLoader> {
+        final AtomicInteger size = new AtomicInteger();
+        LoaderReference(ClassLoader loader, ReferenceQueue<ClassLoader> queue) {
+            super(loader, queue);
+        }
+    }
+
+    /** The entries of a class loader, only referenced by it */
+    private static final class LoaderEntries<K, V> {
+        final ConcurrentHashMap<K, V> map = new ConcurrentHashMap<K, V>();
+        final LoaderReference reference;
+        LoaderEntries(LoaderReference reference) {
+            this.reference = reference;
+        }
+    }
+
+    private final String name;
+    /** Every entry, by key, without keeping either alive */
+    private final ConcurrentWeakKeyMap<K, WeakReference<V>> index =
+            new ConcurrentWeakKeyMap<K, WeakReference<V>>();
+    /** The entries without a class loader */
+    private final ConcurrentHashMap<K, V> retained =
+            new ConcurrentHashMap<K, V>();
+    /** Keeps the references alive until they are enqueued */
+    private final Set<LoaderReference> references = Collections.newSetFromMap(
+            new ConcurrentHashMap<LoaderReference, Boolean>());
+    private final ReferenceQueue<ClassLoader> queue =
+            new ReferenceQueue<ClassLoader>();
+    /** Replaced when cleared, to forget the entries class loaders hold */
+    private volatile ClassValue<LoaderEntries<K, V>> entries = newEntries();
+    private final StripedCounter hits = new StripedCounter();
+    private final StripedCounter misses = new StripedCounter();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public ClassLoaderCache(String name) {
+        this.name = name;
+    }
+
+    private ClassValue<LoaderEntries<K, V>> newEntries() {
+        return new ClassValue<LoaderEntries<K, V>>() {
+            @Override
+            protected LoaderEntries<K, V> computeValue(Class<?> anchor) {
+                LoaderReference ref = new LoaderReference(anchor.getClassLoader(), queue);
+                references.add(ref);
+                return new LoaderEntries<K, V>(ref);
+            }
+        };
+    }
+
+    /**
+     * The value cached for the given key, or {@code null}.
+     * Only a non-null result counts as a hit, like
+     * {@link MetamodelCache#get(Object)}.
+     */
+    public V get(K key) {
+        WeakReference<V> ref = index.get(key);
+        V value = ref != null ? ref.get() : null;
+        if (value != null) {
+            hits.increment();
+        }
+        return value;
+    }
+
+    /**
+     * Caches a newly created value, counting a miss, and
+     * registers it with the given class loader, which may be
+     * {@code null}
+     */
+    public void put(K key, V value, ClassLoader loader) {
+        purge();
+        misses.increment();
+        LoaderEntries<K, V> loaderEntries = loader != null ? entries(loader) : null;
+        if (loaderEntries != null) {
+            if (loaderEntries.map.put(key, value) == null) {
+                loaderEntries.reference.size.incrementAndGet();
+            }
+        }
+        else {
+            retained.put(key, value);
+        }
+        index.put(key, new WeakReference<V>(value));
+    }
+
+    /**
+     * The entries held by the given class loader, or
+     * {@code null} if it can't define the proxy class they
+     * are attached to
+     */
+    private LoaderEntries<K, V> entries(ClassLoader loader) {
+        Class<?> anchor;
+        try {
+            // a proxy class is defined by the given class loader
+            // and only weakly referenced by Proxy itself
+            anchor = Proxy.getProxyClass(loader, Runnable.class);
+        } catch (IllegalArgumentException | SecurityException e) {
+            return null;
+        }
+        return entries.get(anchor);
+    }
+
+    private void purge() {
+        Reference<? extends ClassLoader> ref;
+        while ((ref = queue.poll()) != null) {
+            if (references.remove(ref)) {
+                evictions.addAndGet(((LoaderReference) ref).size.get());
+            }
+        }
+    }
+
+    @Override
+    public void clear() {
+        entries = newEntries();
+        references.clear();
+        retained.clear();
+        index.clear();
+        while (queue.poll() != null) {
+            // already forgotten
+        }
+        hits.reset();
+        misses.reset();
+        evictions.set(0);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public long getHits() {
+        return hits.get();
+    }
+
+    @Override
+    public long getMisses() {
+        return misses.get();
+    }
+
+    @Override
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    /** The entries whose class loader hasn't been collected yet */
+    @Override
+    public int getSize() {
+        int size = retained.size();
+        for (LoaderReference ref : references) {
+            if (ref.get() != null) {
+                size += ref.size.get();
+            }
+        }
+        return size;
+    }
+
+    /** Unbounded, since entries are only evicted with their class loader */
+    @Override
+    public int getMaximumSize() {
+        return Integer.MAX_VALUE;
+    }
+
+    void register() {
+        MetamodelCache.register(this, name);
+    }
+
+    @Override
+    public String toString() {
+        return "ClassLoaderCache " + name + " (size " + getSize()
+                + ", hits " + getHits()
+                + ", misses " + getMisses()
+                + ", evictions " + getEvictions() + ")";
+    }
+}
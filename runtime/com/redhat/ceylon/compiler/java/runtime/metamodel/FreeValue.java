@@ -1,6 +1,7 @@
 package com.redhat.ceylon.compiler.java.runtime.metamodel;
 
 import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
 import java.util.Collections;
 import java.util.List;
 
@@ -36,12 +37,29 @@ public class FreeValue
 
     private FreeSetter setter;
 
+    // created by AppliedValue once, and shared by all its instances
+    private volatile MethodHandle[] accessors;
+
     protected FreeValue(com.redhat.ceylon.compiler.typechecker.model.Value declaration) {
         super(declaration);
 
         this.type = Metamodel.getMetamodel(declaration.getType());
     }
 
+    /**
+     * The getter and setter handles of this value, or null if they
+     * have not been created yet
+     */
+    @Ignore
+    MethodHandle[] getAccessors() {
+        return accessors;
+    }
+
+    @Ignore
+    void setAccessors(MethodHandle[] accessors) {
+        this.accessors = accessors;
+    }
+
     @Override
     @Ignore
     public ValueDeclaration$impl $ceylon$language$meta$declaration$ValueDeclaration$impl() {
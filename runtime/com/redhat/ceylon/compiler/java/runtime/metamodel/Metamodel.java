@@ -4,14 +4,12 @@ import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationHandler;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.WeakHashMap;
 
 import org.jboss.modules.ModuleIdentifier;
 import org.jboss.modules.ModuleLoadException;
@@ -60,6 +58,7 @@ import com.redhat.ceylon.compiler.java.metadata.Ceylon;
 import com.redhat.ceylon.compiler.java.metadata.Ignore;
 import com.redhat.ceylon.compiler.java.metadata.Name;
 import com.redhat.ceylon.compiler.java.metadata.Variance;
+import com.redhat.ceylon.compiler.java.runtime.model.ConcurrentWeakKeyMap;
 import com.redhat.ceylon.compiler.java.runtime.model.ReifiedType;
 import com.redhat.ceylon.compiler.java.runtime.model.RuntimeModelLoader;
 import com.redhat.ceylon.compiler.java.runtime.model.RuntimeModuleManager;
@@ -102,19 +101,35 @@ public class Metamodel {
 
     private static RuntimeModuleManager moduleManager;
     
-    // FIXME: this will need better thinking in terms of memory usage
-    private static Map<com.redhat.ceylon.compiler.typechecker.model.Declaration, Object> typeCheckModelToRuntimeModel
-        = new HashMap<com.redhat.ceylon.compiler.typechecker.model.Declaration, Object>();
+    // These caches are read without holding getLock(), but new entries are 
+    // only ever created while holding it, because creating them uses the type 
+    // checker model, which is not thread-safe. Their entries are only evicted 
+    // once the class loader of their module has been collected, since runtime 
+    // declarations must stay unique.
+    private static final ClassLoaderCache<com.redhat.ceylon.compiler.typechecker.model.Declaration, Object> typeCheckModelToRuntimeModel
+        = new ClassLoaderCache<com.redhat.ceylon.compiler.typechecker.model.Declaration, Object>("declarations");
 
-    private static Map<com.redhat.ceylon.compiler.typechecker.model.Package, com.redhat.ceylon.compiler.java.runtime.metamodel.FreePackage> typeCheckPackagesToRuntimeModel
-        = new HashMap<com.redhat.ceylon.compiler.typechecker.model.Package, com.redhat.ceylon.compiler.java.runtime.metamodel.FreePackage>();
+    private static final ClassLoaderCache<com.redhat.ceylon.compiler.typechecker.model.Package, com.redhat.ceylon.compiler.java.runtime.metamodel.FreePackage> typeCheckPackagesToRuntimeModel
+        = new ClassLoaderCache<com.redhat.ceylon.compiler.typechecker.model.Package, com.redhat.ceylon.compiler.java.runtime.metamodel.FreePackage>("packages");
 
-    private static Map<com.redhat.ceylon.compiler.typechecker.model.Module, com.redhat.ceylon.compiler.java.runtime.metamodel.FreeModule> typeCheckModulesToRuntimeModel
-        = new HashMap<com.redhat.ceylon.compiler.typechecker.model.Module, com.redhat.ceylon.compiler.java.runtime.metamodel.FreeModule>();
+    private static final ClassLoaderCache<com.redhat.ceylon.compiler.typechecker.model.Module, com.redhat.ceylon.compiler.java.runtime.metamodel.FreeModule> typeCheckModulesToRuntimeModel
+        = new ClassLoaderCache<com.redhat.ceylon.compiler.typechecker.model.Module, com.redhat.ceylon.compiler.java.runtime.metamodel.FreeModule>("modules");
 
-    private static Map<TypeDescriptor,ProducedType> typeDescriptorToProducedType = new WeakHashMap<TypeDescriptor,ProducedType>();
+    private static ConcurrentWeakKeyMap<TypeDescriptor,ProducedType> typeDescriptorToProducedType = new ConcurrentWeakKeyMap<TypeDescriptor,ProducedType>();
+
+    /**
+     * The results of {@link #isReified(Object, TypeDescriptor)}, which may be
+     * sized with the {@code ceylon.metamodel.isCacheSize} system property
+     */
+    private static final MetamodelCache<SubtypeCheck, Boolean> subtypeChecks
+        = new MetamodelCache<SubtypeCheck, Boolean>("subtypeChecks", 
+                MetamodelCache.maximumSize("ceylon.metamodel.isCacheSize", 1000));
 
     static{
+        typeCheckModelToRuntimeModel.register();
+        typeCheckPackagesToRuntimeModel.register();
+        typeCheckModulesToRuntimeModel.register();
+        subtypeChecks.register();
         resetModuleManager();
     }
 
@@ -128,6 +143,14 @@ public class Metamodel {
         return hasLoaded;
     }
     
+    /**
+     * Unloads a module loaded by {@link #loadModule}: its runtime model
+     * is evicted from the caches once its class loader is collected.
+     */
+    public static boolean unloadModule(com.redhat.ceylon.compiler.typechecker.model.Module module){
+        return moduleManager.unloadModule(module);
+    }
+    
     public static void resetModuleManager() {
         RepositoryManagerBuilder builder = new RepositoryManagerBuilder(new Logger(){
 
@@ -162,6 +185,7 @@ public class Metamodel {
         typeCheckModulesToRuntimeModel.clear();
         typeCheckPackagesToRuntimeModel.clear();
         typeDescriptorToProducedType.clear();
+        subtypeChecks.clear();
     }
     
     // This is only used in tests
@@ -229,7 +253,46 @@ public class Metamodel {
         TypeDescriptor instanceType = getTypeDescriptor(o);
         if(instanceType == null)
             return false;
-        return getProducedType(instanceType).isSubtypeOf(getProducedType(type));
+        SubtypeCheck key = new SubtypeCheck(instanceType, type);
+        Boolean cached = subtypeChecks.get(key);
+        if(cached != null)
+            return cached.booleanValue();
+        boolean ret = getProducedType(instanceType).isSubtypeOf(getProducedType(type));
+        subtypeChecks.put(key, ret);
+        return ret;
+    }
+
+    /**
+     * The key of a cached subtype check. Type descriptors are interned, so
+     * this is usually just two identity checks.
+     */
+    private static final class SubtypeCheck {
+        private final TypeDescriptor instanceType;
+        private final TypeDescriptor type;
+        private final int hash;
+
+        SubtypeCheck(TypeDescriptor instanceType, TypeDescriptor type) {
+            this.instanceType = instanceType;
+            this.type = type;
+            this.hash = 37 * instanceType.hashCode() + type.hashCode();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if(this == obj)
+                return true;
+            if(obj instanceof SubtypeCheck == false)
+                return false;
+            SubtypeCheck other = (SubtypeCheck) obj;
+            return hash == other.hash
+                    && instanceType.equals(other.instanceType)
+                    && type.equals(other.type);
+        }
     }
 
     public static ProducedType getProducedType(Object instance) {
@@ -240,7 +303,9 @@ public class Metamodel {
     }
 
     public static ProducedType getProducedType(TypeDescriptor reifiedType) {
-        ProducedType producedType;
+        ProducedType producedType = typeDescriptorToProducedType.get(reifiedType);
+        if(producedType != null)
+            return producedType;
         synchronized(getLock()){
             producedType = typeDescriptorToProducedType.get(reifiedType);
             if(producedType == null){
@@ -259,6 +324,9 @@ public class Metamodel {
     }
     
     public static <R> R getOrCreateMetamodel(com.redhat.ceylon.compiler.typechecker.model.Declaration declaration){
+        Object existing = typeCheckModelToRuntimeModel.get(declaration);
+        if(existing != null)
+            return (R)existing;
         synchronized(getLock()){
             Object ret = typeCheckModelToRuntimeModel.get(declaration);
             if(ret == null){
@@ -290,12 +358,20 @@ public class Metamodel {
                 }else{
                     throw Metamodel.newModelError("Declaration type not supported yet: "+declaration);
                 }
-                typeCheckModelToRuntimeModel.put(declaration, ret);
+                typeCheckModelToRuntimeModel.put(declaration, ret, getClassLoader(mod));
             }
             return (R)ret;
         }
     }
 
+    /**
+     * The class loader of the given module, or null if it doesn't have one,
+     * like the JDK modules. Must be called while holding getLock().
+     */
+    private static ClassLoader getClassLoader(com.redhat.ceylon.compiler.typechecker.model.Module module){
+        return moduleManager.getModelLoader().getClassLoader(module);
+    }
+
     public static boolean hasTypeParameters(com.redhat.ceylon.compiler.typechecker.model.TypedDeclaration model) {
         if(model instanceof com.redhat.ceylon.compiler.typechecker.model.Generic)
             return hasTypeParameters((com.redhat.ceylon.compiler.typechecker.model.Generic)model);
@@ -314,6 +390,9 @@ public class Metamodel {
     }
 
     public static com.redhat.ceylon.compiler.java.runtime.metamodel.FreePackage getOrCreateMetamodel(com.redhat.ceylon.compiler.typechecker.model.Package declaration){
+        com.redhat.ceylon.compiler.java.runtime.metamodel.FreePackage existing = typeCheckPackagesToRuntimeModel.get(declaration);
+        if(existing != null)
+            return existing;
         synchronized(getLock()){
             com.redhat.ceylon.compiler.java.runtime.metamodel.FreePackage ret = typeCheckPackagesToRuntimeModel.get(declaration);
             if(ret == null){
@@ -322,7 +401,7 @@ public class Metamodel {
                 getOrCreateMetamodel(mod);
 
                 ret = new com.redhat.ceylon.compiler.java.runtime.metamodel.FreePackage(declaration); 
-                typeCheckPackagesToRuntimeModel.put(declaration, ret);
+                typeCheckPackagesToRuntimeModel.put(declaration, ret, getClassLoader(mod));
             }
             return ret;
         }
@@ -334,6 +413,9 @@ public class Metamodel {
 
     private static com.redhat.ceylon.compiler.java.runtime.metamodel.FreeModule getOrCreateMetamodel(com.redhat.ceylon.compiler.typechecker.model.Module declaration,
             Set<com.redhat.ceylon.compiler.typechecker.model.Module> visitedModules, boolean optional){
+        com.redhat.ceylon.compiler.java.runtime.metamodel.FreeModule existing = typeCheckModulesToRuntimeModel.get(declaration);
+        if(existing != null)
+            return existing;
         synchronized(getLock()){
             com.redhat.ceylon.compiler.java.runtime.metamodel.FreeModule ret = typeCheckModulesToRuntimeModel.get(declaration);
             if(ret == null){
@@ -342,7 +424,7 @@ public class Metamodel {
                 if(!declaration.isAvailable())
                     return null;
                 ret = new com.redhat.ceylon.compiler.java.runtime.metamodel.FreeModule(declaration); 
-                typeCheckModulesToRuntimeModel.put(declaration, ret);
+                typeCheckModulesToRuntimeModel.put(declaration, ret, getClassLoader(declaration));
             }
             return ret;
         }
@@ -574,6 +656,14 @@ public class Metamodel {
         throw Metamodel.newModelError("Unsupported declaration type: " + declaration + " of type "+declaration.getClass());
     }
     
+    /**
+     * The Java class of the given declaration, which for a member
+     * without a class of its own is the class containing it
+     */
+    public static java.lang.Class<?> getJavaClass(ceylon.language.meta.declaration.NestableDeclaration declaration) {
+        return getJavaClass(((FreeNestableDeclaration) declaration).declaration);
+    }
+    
     public static java.lang.reflect.Constructor<?> getJavaConstructor(com.redhat.ceylon.compiler.typechecker.model.Constructor declaration) {
         Constructor<?>[] ctors = getJavaClass((com.redhat.ceylon.compiler.typechecker.model.Class)declaration.getContainer()).getDeclaredConstructors();
         for (java.lang.reflect.Constructor<?> ctor : ctors) {
@@ -0,0 +1,228 @@
+package com.redhat.ceylon.compiler.java.runtime.metamodel;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import com.redhat.ceylon.compiler.java.runtime.model.StripedCounter;
+
+/**
+ * A size-bounded concurrent cache of results computed from
+ * the type checker model.
+ *
+ * <p>It is only suitable for values which may be computed
+ * again: runtime declarations, packages and modules, which
+ * must stay unique, are cached in a {@link ClassLoaderCache}
+ * instead.</p>
+ *
+ * <p>{@link #get(Object)} never takes a lock. Once a
+ * {@link #put(Object, Object)} makes the cache exceed its
+ * maximum size, the least recently used tenth of the entries
+ * is evicted, and simply computed again when it is next
+ * needed.</p>
+ *
+ * <p>Recency is tracked with a clock which only advances on
+ * {@code put()}, so that hits don't all write to the same
+ * memory location.</p>
+ *
+ * @param <K> The key type
+ * @param <V> The value type
+ */
+public final class MetamodelCache<K, V> implements MetamodelCacheMBean {
+
+    /**
+     * The default maximum size, which may be set with the
+     * {@code ceylon.metamodel.cacheSize} system property
+     */
+    static final int DEFAULT_MAXIMUM_SIZE = 
+            maximumSize("ceylon.metamodel.cacheSize", 10000);
+
+    /**
+     * The maximum size given by the given system property, or
+     * the given default if it isn't set to a positive integer
+     */
+    static int maximumSize(String property, int defaultSize) {
+        try {
+            String value = System.getProperty(property);
+            if (value != null) {
+                int size = Integer.parseInt(value.trim());
+                if (size > 0) {
+                    return size;
+                }
+            }
+        } catch (NumberFormatException|SecurityException e) {
+            // fall back to the default
+        }
+        return defaultSize;
+    }
+
+    private static final class Entry<V> {
+        final V value;
+        volatile long lastAccess;
+        Entry(V value, long lastAccess) {
+            this.value = value;
+            this.lastAccess = lastAccess;
+        }
+    }
+
+    private final String name;
+    private final int maximumSize;
+    private final ConcurrentHashMap<K, Entry<V>> map =
+            new ConcurrentHashMap<K, Entry<V>>();
+    private final AtomicLong clock = new AtomicLong();
+    private final StripedCounter hits = new StripedCounter();
+    private final StripedCounter misses = new StripedCounter();
+    private final StripedCounter evictions = new StripedCounter();
+
+    public MetamodelCache(String name, int maximumSize) {
+        this.name = name;
+        this.maximumSize = maximumSize;
+    }
+
+    public MetamodelCache(String name) {
+        this(name, DEFAULT_MAXIMUM_SIZE);
+    }
+
+    /**
+     * The value cached for the given key, or {@code null}.
+     * Only a non-null result counts as a hit, since callers
+     * typically look up again before calling
+     * {@link #put(Object, Object)}.
+     */
+    public V get(K key) {
+        Entry<V> entry = map.get(key);
+        if (entry == null) {
+            return null;
+        }
+        long now = clock.get();
+        if (entry.lastAccess != now) {
+            entry.lastAccess = now;
+        }
+        hits.increment();
+        return entry.value;
+    }
+
+    /** Caches a newly created value, counting a miss */
+    public void put(K key, V value) {
+        misses.increment();
+        map.put(key, new Entry<V>(value, clock.incrementAndGet()));
+        if (map.size() > maximumSize) {
+            evict();
+        }
+    }
+
+    private synchronized void evict() {
+        int excess = map.size() - maximumSize;
+        if (excess <= 0) {
+            // another thread got here first
+            return;
+        }
+        List<Map.Entry<K, Entry<V>>> entries =
+                new ArrayList<Map.Entry<K, Entry<V>>>(map.entrySet());
+        Collections.sort(entries, new Comparator<Map.Entry<K, Entry<V>>>() {
+            @Override
+            public int compare(Map.Entry<K, Entry<V>> x, Map.Entry<K, Entry<V>> y) {
+                long a = x.getValue().lastAccess;
+                long b = y.getValue().lastAccess;
+                return a < b ? -1 : (a == b ? 0 : 1);
+            }
+        });
+        // evict a little more than needed, so that we don't
+        // have to sort again on the very next put()
+        int count = Math.min(entries.size(), excess + maximumSize / 10);
+        for (int i = 0; i < count; i++) {
+            Map.Entry<K, Entry<V>> entry = entries.get(i);
+            if (map.remove(entry.getKey(), entry.getValue())) {
+                evictions.increment();
+            }
+        }
+    }
+
+    @Override
+    public void clear() {
+        map.clear();
+        hits.reset();
+        misses.reset();
+        evictions.reset();
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public long getHits() {
+        return hits.get();
+    }
+
+    @Override
+    public long getMisses() {
+        return misses.get();
+    }
+
+    @Override
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    @Override
+    public int getSize() {
+        return map.size();
+    }
+
+    @Override
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * Registers this cache with the platform MBean server if
+     * the {@code ceylon.metamodel.jmx} system property is
+     * {@code true}. Failure to register is not an error, since
+     * the statistics are purely informative.
+     */
+    void register() {
+        register(this, name);
+    }
+
+    /**
+     * Registers the given cache with the platform MBean server
+     * under the given name if the {@code ceylon.metamodel.jmx}
+     * system property is {@code true}. Failure to register is
+     * not an error, since the statistics are purely
+     * informative.
+     */
+    static void register(MetamodelCacheMBean cache, String name) {
+        try {
+            if (!Boolean.getBoolean("ceylon.metamodel.jmx")) {
+                return;
+            }
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(
+                    "ceylon.language:type=MetamodelCache,name=" + name);
+            if (!server.isRegistered(objectName)) {
+                server.registerMBean(cache, objectName);
+            }
+        } catch (JMException|SecurityException e) {
+            // just don't expose the statistics
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "MetamodelCache " + name + " (size " + getSize()
+                + ", hits " + getHits()
+                + ", misses " + getMisses()
+                + ", evictions " + getEvictions() + ")";
+    }
+}
@@ -0,0 +1,35 @@
+package com.redhat.ceylon.compiler.java.runtime.metamodel;
+
+/**
+ * Management interface of the caches kept by the
+ * {@link Metamodel}, registered with the platform MBean
+ * server as {@code ceylon.language:type=MetamodelCache,name=...}
+ * when the {@code ceylon.metamodel.jmx} system property is
+ * {@code true}.
+ */
+public interface MetamodelCacheMBean {
+
+    /** The name of the cache */
+    String getName();
+
+    /** The number of lookups which found an entry */
+    long getHits();
+
+    /** The number of entries which had to be created */
+    long getMisses();
+
+    /**
+     * The number of entries dropped to stay within the maximum
+     * size, or because their class loader was collected
+     */
+    long getEvictions();
+
+    /** The number of entries currently retained */
+    int getSize();
+
+    /** The maximum number of entries retained */
+    int getMaximumSize();
+
+    /** Drops every entry, and resets the statistics */
+    void clear();
+}
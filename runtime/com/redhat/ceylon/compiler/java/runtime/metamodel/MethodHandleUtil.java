@@ -27,6 +27,52 @@ import com.redhat.ceylon.compiler.typechecker.model.TypeDeclaration;
 
 public class MethodHandleUtil {
 
+    private static final MethodType SPREADER_TYPE = 
+            MethodType.methodType(java.lang.Object.class, java.lang.Object[].class);
+
+    /**
+     * Returns a handle of type {@code (Object[])Object} which calls the given
+     * handle with the elements of its array argument, so that calls with
+     * many arguments can use {@code invokeExact()} rather than 
+     * {@code invokeWithArguments()}, which works out the conversions on
+     * every call. The spreader should be created once and cached.
+     */
+    public static MethodHandle spreader(MethodHandle method) {
+        return method.asSpreader(java.lang.Object[].class, method.type().parameterCount())
+                .asType(SPREADER_TYPE);
+    }
+
+    /**
+     * The {@link #spreader(MethodHandle) spreaders} of the main handle of
+     * a function or constructor, and of its dispatch handles for calls
+     * which leave defaulted parameters out, each created the first time
+     * it's needed. Races just create the same spreader more than once.
+     */
+    public static final class Spreaders {
+        private MethodHandle spreader;
+        private MethodHandle[] dispatchSpreaders;
+
+        /**
+         * The spreader for the handle which is called with the given 
+         * dispatch index, or for the main handle if it's negative
+         */
+        public MethodHandle get(MethodHandle method, MethodHandle[] dispatch, int index) {
+            if(index < 0){
+                MethodHandle ret = spreader;
+                if(ret == null)
+                    spreader = ret = spreader(method);
+                return ret;
+            }
+            MethodHandle[] spreaders = dispatchSpreaders;
+            if(spreaders == null)
+                dispatchSpreaders = spreaders = new MethodHandle[dispatch.length];
+            MethodHandle ret = spreaders[index];
+            if(ret == null)
+                spreaders[index] = ret = spreader(dispatch[index]);
+            return ret;
+        }
+    }
+
     public static MethodHandle insertReifiedTypeArguments(MethodHandle constructor, int insertAt, List<ProducedType> typeArguments) {
         Object[] typeDescriptors = new TypeDescriptor[typeArguments.size()];
         for(int i=0;i<typeDescriptors.length;i++){
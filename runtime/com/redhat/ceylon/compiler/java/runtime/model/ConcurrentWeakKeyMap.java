@@ -0,0 +1,133 @@
+package com.redhat.ceylon.compiler.java.runtime.model;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A thread-safe map whose keys are only weakly referenced,
+ * like a concurrent {@link java.util.WeakHashMap}. Keys are
+ * compared with {@code equals()}, and {@link #get(Object)}
+ * never takes a lock.
+ *
+ * <p>Entries whose key has been collected are purged on
+ * the next {@link #put(Object, Object)}.</p>
+ *
+ * @param <K> The key type
+ * @param <V> The value type
+ */
+public final class ConcurrentWeakKeyMap<K, V> {
+
+    private final ConcurrentHashMap<Object, V> map =
+            new ConcurrentHashMap<Object, V>();
+
+    private final ReferenceQueue<K> queue = new ReferenceQueue<K>();
+
+    public V get(K key) {
+        return map.get(new Lookup(key));
+    }
+
+    public V put(K key, V value) {
+        purge();
+        return map.put(new WeakKey<K>(key, queue), value);
+    }
+
+    /**
+     * Associates the given value with the given key unless
+     * it is already associated with a value, in which case
+     * that value is returned.
+     */
+    public V putIfAbsent(K key, V value) {
+        purge();
+        return map.putIfAbsent(new WeakKey<K>(key, queue), value);
+    }
+
+    public V remove(K key) {
+        return map.remove(new Lookup(key));
+    }
+
+    public void clear() {
+        map.clear();
+        purge();
+    }
+
+    /**
+     * The number of entries, which may include entries whose
+     * keys have been collected but not yet purged.
+     */
+    public int size() {
+        return map.size();
+    }
+
+    private void purge() {
+        java.lang.ref.Reference<? extends K> ref;
+        while ((ref = queue.poll()) != null) {
+            map.remove(ref);
+        }
+    }
+
+    private static boolean keyEquals(Object key, Object other) {
+        Object otherKey;
+        if (other instanceof WeakKey) {
+            otherKey = ((WeakKey<?>) other).get();
+        }
+        else if (other instanceof Lookup) {
+            otherKey = ((Lookup) other).key;
+        }
+        else {
+            return false;
+        }
+        return key == otherKey ||
+                key != null && key.equals(otherKey);
+    }
+
+    /** The key as it is stored in the map */
+    private static final class WeakKey<K> extends WeakReference<K> {
+        private final int hash;
+
+        WeakKey(K key, ReferenceQueue<? super K> queue) {
+            super(key, queue);
+            hash = key.hashCode();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (other == this) {
+                return true;
+            }
+            Object key = get();
+            // once collected, a key is only equal to itself,
+            // so that purge() can still remove it
+            return key != null && keyEquals(key, other);
+        }
+    }
+
+    /**
+     * The key used to look up an entry, which avoids creating
+     * a {@link WeakReference} for every lookup
+     */
+    private static final class Lookup {
+        private final Object key;
+        private final int hash;
+
+        Lookup(Object key) {
+            this.key = key;
+            hash = key.hashCode();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return keyEquals(key, other);
+        }
+    }
+}
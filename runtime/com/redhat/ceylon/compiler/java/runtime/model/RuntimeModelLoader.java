@@ -1,9 +1,11 @@
 package com.redhat.ceylon.compiler.java.runtime.model;
 
 import java.net.URI;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.jboss.modules.ModuleClassLoader;
 
@@ -31,7 +33,8 @@ public class RuntimeModelLoader extends ReflectionModelLoader {
     
     private Map<Module,ClassLoader> classLoaders = new HashMap<Module,ClassLoader>();
     private Map<String, Module> moduleCache = new HashMap<String, Module>();
-    private CachedTOCJars jars = new CachedTOCJars();
+    /** The jar of each module, kept apart so that it can be unloaded */
+    private Map<Module, CachedTOCJars> jars = new ConcurrentHashMap<Module, CachedTOCJars>();
 
     public RuntimeModelLoader(ModuleManager moduleManager, Modules modules) {
         super(moduleManager, modules, new LoaderJULLogger());
@@ -55,28 +58,42 @@ public class RuntimeModelLoader extends ReflectionModelLoader {
     
     @Override
     protected List<String> getPackageList(Module module, String packageName) {
-        return jars.getPackageList(module, packageName);
+        CachedTOCJars jar = jars.get(module);
+        return jar != null ? jar.getPackageList(module, packageName) : Collections.<String>emptyList();
     }
 
     @Override
     protected boolean packageExists(Module module, String packageName) {
-        return jars.packageExists(module, packageName);
+        CachedTOCJars jar = jars.get(module);
+        return jar != null && jar.packageExists(module, packageName);
     }
 
     public byte[] getContents(String path) {
-        return jars.getContents(path);
+        for(CachedTOCJars jar : jars.values()){
+            byte[] contents = jar.getContents(path);
+            if(contents != null)
+                return contents;
+        }
+        return null;
     }
 
     public URI getContentUri(String path) {
-        return jars.getContentUri(path);
+        for(CachedTOCJars jar : jars.values()){
+            URI uri = jar.getContentUri(path);
+            if(uri != null)
+                return uri;
+        }
+        return null;
     }
 
     public byte[] getContents(Module module, String path) {
-        return jars.getContents(module, path);
+        CachedTOCJars jar = jars.get(module);
+        return jar != null ? jar.getContents(module, path) : null;
     }
     
     public URI getContentUri(Module module, String path) {
-        return jars.getContentUri(module, path);
+        CachedTOCJars jar = jars.get(module);
+        return jar != null ? jar.getContentUri(module, path) : null;
     }
     
     @Override
@@ -107,7 +124,9 @@ public class RuntimeModelLoader extends ReflectionModelLoader {
         moduleCache.put(cacheKey, module);
         if(artifact == null)
             return;
-        jars.addJar(artifact, module);
+        CachedTOCJars jar = new CachedTOCJars();
+        jar.addJar(artifact, module);
+        jars.put(module, jar);
         if(module instanceof LazyModule){
             ((LazyModule) module).loadPackageList(artifact);
         }
@@ -117,6 +136,23 @@ public class RuntimeModelLoader extends ReflectionModelLoader {
         classLoaders.put(module, classLoader);
     }
 
+    /** The class loader of the given module, or null if it has none */
+    public ClassLoader getClassLoader(Module module) {
+        return classLoaders.get(module);
+    }
+
+    /**
+     * Forgets the given module, its jar and its class loader, so that
+     * they can be collected once nothing else references them.
+     */
+    public void removeModule(Module module) {
+        synchronized(getLock()){
+            moduleCache.remove(cacheKeyByModule(module.getNameAsString(), module.getVersion()));
+            classLoaders.remove(module);
+            jars.remove(module);
+        }
+    }
+
     @Override
     protected Module findModuleForClassMirror(ClassMirror classMirror) {
         Class<?> klass = ((ReflectionClass)classMirror).klass;
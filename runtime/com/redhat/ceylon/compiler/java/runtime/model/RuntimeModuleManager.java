@@ -1,9 +1,7 @@
 package com.redhat.ceylon.compiler.java.runtime.model;
 
 import java.util.Collections;
-import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
 
 import com.redhat.ceylon.cmr.api.ArtifactResult;
 import com.redhat.ceylon.compiler.java.runtime.metamodel.Metamodel;
@@ -17,7 +15,6 @@ import com.redhat.ceylon.compiler.typechecker.model.Module;
 import com.redhat.ceylon.compiler.typechecker.model.ModuleImport;
 import com.redhat.ceylon.compiler.typechecker.model.Modules;
 import com.redhat.ceylon.compiler.typechecker.model.Package;
-import com.redhat.ceylon.compiler.typechecker.model.ProducedType;
 import com.redhat.ceylon.compiler.typechecker.model.Unit;
 
 public class RuntimeModuleManager extends ReflectionModuleManager {
@@ -108,6 +105,23 @@ public class RuntimeModuleManager extends ReflectionModuleManager {
         }
     }
     
+    /**
+     * Unloads a module loaded by {@link #loadModule}, so that its class
+     * loader and the metamodel cached for it can be collected once no
+     * other module imports it. Returns false if it wasn't loaded.
+     */
+    public boolean unloadModule(Module module) {
+        RuntimeModelLoader modelLoader = getModelLoader();
+        synchronized(modelLoader.getLock()){
+            if(modelLoader.getClassLoader(module) == null)
+                return false;
+            modelLoader.removeModule(module);
+            getContext().getModules().getListOfModules().remove(module);
+            module.setAvailable(false);
+            return true;
+        }
+    }
+
     @Override
     public RuntimeModelLoader getModelLoader() {
         return (RuntimeModelLoader) super.getModelLoader();
@@ -117,49 +131,11 @@ public class RuntimeModuleManager extends ReflectionModuleManager {
         return getModelLoader().findModuleForClass(klass);
     }
     
-    @SuppressWarnings("serial")
-    private final LinkedHashMap<TypeDescriptor, ProducedType> producedTypeCache = 
-    		new LinkedHashMap<TypeDescriptor, ProducedType>(100, (float)0.75, true) {
-    	@Override
-    	protected boolean removeEldestEntry
-    	        (Map.Entry<TypeDescriptor,ProducedType> eldest) {
-    		return size() > 100;
-    	}
-    };
-    
-    public ProducedType getCachedProducedType(TypeDescriptor td) {
-        ProducedType pt = producedTypeCache.get(td);
-        if (pt == null) {
-            pt = td.toProducedType(this);
-            producedTypeCache.put(td, pt);
-        }
-        return pt;
-    }
-    
-    @SuppressWarnings("serial")
-    private final LinkedHashMap<String, Boolean> isCache = 
-    		new LinkedHashMap<String, Boolean>(100, (float)0.75, true) {
-    	@Override
-    	protected boolean removeEldestEntry
-    	        (Map.Entry<String,Boolean> eldest) {
-    		return size() > 100;
-    	}
-    };
-    
+    /**
+     * Whether the given instance is of the given type, as cached by
+     * {@link Metamodel#isReified(Object, TypeDescriptor)}
+     */
     public boolean cachedIs(Object o, TypeDescriptor type) {
-        TypeDescriptor instanceType = Metamodel.getTypeDescriptor(o);
-        String key = instanceType+"<:"+type;
-        Boolean cachedResult = isCache.get(key);
-        if (cachedResult != null) {
-            return cachedResult;
-        }
-        
-        if(instanceType == null)
-            return false;
-        ProducedType pt1 = getCachedProducedType(instanceType);
-        ProducedType pt2  = getCachedProducedType(type);
-        boolean result = pt1.isSubtypeOf(pt2);
-        isCache.put(key, result);
-        return result;
+        return Metamodel.isReified(o, type);
     }
 }
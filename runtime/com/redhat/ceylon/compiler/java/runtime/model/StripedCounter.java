@@ -0,0 +1,48 @@
+package com.redhat.ceylon.compiler.java.runtime.model;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A statistics counter which many threads can increment
+ * without contending on a single memory location. Each
+ * thread increments one of several cells, chosen by its
+ * id, and {@link #get()} adds them all up.
+ */
+public final class StripedCounter {
+
+    /** Cells are this many longs apart, to avoid false sharing */
+    private static final int SPACING = 8;
+
+    private static final int CELLS = cells();
+
+    private final AtomicLongArray cells =
+            new AtomicLongArray(CELLS * SPACING);
+
+    private static int cells() {
+        int processors = Runtime.getRuntime().availableProcessors();
+        int cells = 1;
+        while (cells < processors) {
+            cells <<= 1;
+        }
+        return cells;
+    }
+
+    public void increment() {
+        int cell = (int) Thread.currentThread().getId() & (CELLS - 1);
+        cells.incrementAndGet(cell * SPACING);
+    }
+
+    public long get() {
+        long sum = 0;
+        for (int i = 0; i < CELLS; i++) {
+            sum += cells.get(i * SPACING);
+        }
+        return sum;
+    }
+
+    public void reset() {
+        for (int i = 0; i < CELLS; i++) {
+            cells.set(i * SPACING, 0);
+        }
+    }
+}
@@ -43,6 +43,20 @@ public abstract class TypeDescriptor {
     public static final TypeDescriptor NothingType = new Nothing();
     private static final Variance[] NO_VARIANCE = new Variance[0];
 
+    /**
+     * Every descriptor returned by the factory methods is interned, so
+     * that descriptors which are equal are usually identical, and 
+     * descriptors which are both interned are only equal if identical.
+     */
+    private static final WeakInterner<TypeDescriptor> INTERNED = new WeakInterner<TypeDescriptor>();
+
+    /**
+     * Whether this is the canonical instance from {@link #INTERNED}.
+     * This is only set once interned, and reading a stale false only
+     * means falling back to a structural comparison.
+     */
+    private boolean interned;
+
     //
     // Methods
 
@@ -71,6 +85,24 @@ public abstract class TypeDescriptor {
         }
         return hash;
     }
+
+    /**
+     * Returns the canonical instance equal to the given descriptor
+     */
+    private static TypeDescriptor intern(TypeDescriptor td) {
+        TypeDescriptor ret = INTERNED.intern(td);
+        if(ret == td)
+            td.interned = true;
+        return ret;
+    }
+
+    /**
+     * Whether this and the given descriptor are both canonical instances,
+     * which means they are only equal if identical
+     */
+    protected final boolean bothInterned(TypeDescriptor other) {
+        return interned && other.interned;
+    }
 	
 
     //
@@ -93,6 +125,10 @@ public abstract class TypeDescriptor {
             return typeArguments;
         }
 
+        public Variance[] getUseSiteVariance() {
+            return useSiteVariance;
+        }
+
         protected boolean equals(Generic other) {
             return Arrays.equals(typeArguments, other.typeArguments)
                     && Arrays.equals(useSiteVariance, other.useSiteVariance);
@@ -150,11 +186,18 @@ public abstract class TypeDescriptor {
     }
 
     public static class Class extends Generic implements QualifiableTypeDescriptor {
-        private java.lang.Class<?> klass;
+        private final java.lang.Class<?> klass;
+        private final int hash;
 
         public Class(java.lang.Class<?> klass, Variance[] useSiteVariance, TypeDescriptor[] typeArguments){
             super(useSiteVariance, typeArguments);
             this.klass = klass;
+            int ret = 17;
+            ret = 37 * ret + "class".hashCode();
+            ret = 37 * ret + Arrays.hashCode(typeArguments);
+            ret = 37 * ret + Arrays.hashCode(useSiteVariance);
+            ret = 37 * ret + klass.hashCode();
+            this.hash = ret;
         }
 
         public java.lang.Class<?> getKlass() {
@@ -168,7 +211,9 @@ public abstract class TypeDescriptor {
             if(obj == null || obj instanceof Class == false)
                 return false;
             Class other = (Class) obj;
-            if(klass != other.klass)
+            if(klass != other.klass
+                    || hash != other.hash
+                    || bothInterned(other))
                 return false;
             // now compare type arguments
             return super.equals(other);
@@ -176,12 +221,7 @@ public abstract class TypeDescriptor {
         
         @Override
         public int hashCode() {
-            int ret = 17;
-            ret = 37 * ret + "class".hashCode();
-            ret = 37 * ret + Arrays.hashCode(typeArguments);
-            ret = 37 * ret + Arrays.hashCode(useSiteVariance);
-            ret = 37 * ret + klass.hashCode();
-            return  ret;
+            return hash;
         }
         
         @Override
@@ -281,6 +321,7 @@ public abstract class TypeDescriptor {
         private final String name;
         private final java.lang.Class<?> klass;
         private final boolean local;
+        private final int hash;
         
         /**
          * For members
@@ -295,6 +336,7 @@ public abstract class TypeDescriptor {
                 local = false;
             else
                 local = Character.isDigit(name.charAt(0));
+            this.hash = hash(null, name, typeArguments);
         }
 
         /**
@@ -307,6 +349,16 @@ public abstract class TypeDescriptor {
             this.klass = klass;
             this.name = null;
             this.local = false;
+            this.hash = hash(klass, null, typeArguments);
+        }
+
+        private static int hash(java.lang.Class<?> klass, String name, TypeDescriptor[] typeArguments) {
+            int ret = 17;
+            ret = 37 * ret + "functionorvalue".hashCode();
+            ret = 37 * ret + Arrays.hashCode(typeArguments);
+            ret = 37 * ret + (klass != null ? klass.hashCode() : 0);
+            ret = 37 * ret + (name != null ? name.hashCode() : 0);
+            return ret;
         }
 
         @Override
@@ -364,6 +416,9 @@ public abstract class TypeDescriptor {
             if(obj == null || obj instanceof FunctionOrValue == false)
                 return false;
             FunctionOrValue other = (FunctionOrValue) obj;
+            if(hash != other.hash
+                    || bothInterned(other))
+                return false;
             if(name != null){
                 if(!name.equals(other.name))
                     return false;
@@ -377,12 +432,7 @@ public abstract class TypeDescriptor {
         
         @Override
         public int hashCode() {
-            int ret = 17;
-            ret = 37 * ret + "functionorvalue".hashCode();
-            ret = 37 * ret + Arrays.hashCode(typeArguments);
-            ret = 37 * ret + (klass != null ? klass.hashCode() : 0);
-            ret = 37 * ret + (name != null ? name.hashCode() : 0);
-            return  ret;
+            return hash;
         }
         
         @Override
@@ -400,12 +450,18 @@ public abstract class TypeDescriptor {
     
     public static class Member extends TypeDescriptor {
 
-        private TypeDescriptor container;
-        private TypeDescriptor member;
+        private final TypeDescriptor container;
+        private final TypeDescriptor member;
+        private final int hash;
 
         public Member(TypeDescriptor container, TypeDescriptor member) {
             this.member = member;
             this.container = container;
+            int ret = 17;
+            ret = 37 * ret + "member".hashCode();
+            ret = 37 * ret + container.hashCode();
+            ret = 37 * ret + member.hashCode();
+            this.hash = ret;
         }
 
         public TypeDescriptor getContainer() {
@@ -423,17 +479,16 @@ public abstract class TypeDescriptor {
             if(obj == null || obj instanceof Member == false)
                 return false;
             Member other = (Member) obj;
+            if(hash != other.hash
+                    || bothInterned(other))
+                return false;
             return container.equals(other.container)
                     && member.equals(other.member);
         }
 
         @Override
         public int hashCode() {
-            int ret = 17;
-            ret = 37 * ret + "member".hashCode();
-            ret = 37 * ret + container.hashCode();
-            ret = 37 * ret + member.hashCode();
-            return ret;
+            return hash;
         }
 
         @Override
@@ -506,11 +561,21 @@ public abstract class TypeDescriptor {
         }
     }
     
-    private abstract static class Composite extends TypeDescriptor {
+    public abstract static class Composite extends TypeDescriptor {
         protected final TypeDescriptor[] members;
+        protected final int hash;
 
-        public Composite(TypeDescriptor[] members) {
+        public Composite(String kind, TypeDescriptor[] members) {
             this.members = members;
+            int ret = 17;
+            ret = 37 * ret + kind.hashCode();
+            ret = 37 * ret + unorderedHashCode(members);
+            this.hash = ret;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
         }
 
         public TypeDescriptor[] getMembers() {
@@ -518,6 +583,9 @@ public abstract class TypeDescriptor {
         }
 
         protected boolean equals(Composite other) {
+            if(hash != other.hash
+                    || bothInterned(other))
+                return false;
             return allContained(members, other.members)
                     && allContained(other.members, members);
         }
@@ -563,7 +631,7 @@ public abstract class TypeDescriptor {
     public static class Union extends Composite {
 
         public Union(TypeDescriptor[] members) {
-            super(members);
+            super("union", members);
         }
 
         @Override
@@ -575,14 +643,6 @@ public abstract class TypeDescriptor {
             return super.equals((Union)obj);
         }
 
-        @Override
-        public int hashCode() {
-            int ret = 17;
-            ret = 37 * ret + "union".hashCode();
-            ret = 37 * ret + unorderedHashCode(members);
-            return ret;
-        }
-
         @Override
         public String toString() {
             return super.toString('|');
@@ -636,7 +696,7 @@ public abstract class TypeDescriptor {
     public static class Intersection extends Composite {
 
         public Intersection(TypeDescriptor[] members) {
-            super(members);
+            super("intersection", members);
         }
 
         @Override
@@ -648,14 +708,6 @@ public abstract class TypeDescriptor {
             return super.equals((Intersection)obj);
         }
         
-        @Override
-        public int hashCode() {
-            int ret = 17;
-            ret = 37 * ret + "intersection".hashCode();
-            ret = 37 * ret + unorderedHashCode(members);
-            return ret;
-        }
-
         @Override
         public String toString() {
             return super.toString('&');
@@ -713,7 +765,7 @@ public abstract class TypeDescriptor {
     // Factory methods
     
     public static TypeDescriptor member(TypeDescriptor container, TypeDescriptor member){
-        return new Member(container, member);
+        return intern(new Member(container, member));
     }
     
     public static TypeDescriptor klass(java.lang.Class<?> klass, TypeDescriptor... typeArguments) {
@@ -722,21 +774,21 @@ public abstract class TypeDescriptor {
     }
 
     public static TypeDescriptor klass(java.lang.Class<?> klass, Variance[] useSiteVariance, TypeDescriptor... typeArguments) {
-        return new Class(klass, useSiteVariance, typeArguments);
+        return intern(new Class(klass, useSiteVariance, typeArguments));
     }
 
     /**
      * For members
      */
     public static TypeDescriptor functionOrValue(String name, TypeDescriptor... typeArguments) {
-        return new FunctionOrValue(name, typeArguments);
+        return intern(new FunctionOrValue(name, typeArguments));
     }
 
     /**
      * For toplevel method/attributes
      */
     public static TypeDescriptor functionOrValue(java.lang.Class<?> klass, TypeDescriptor... typeArguments) {
-        return new FunctionOrValue(klass, typeArguments);
+        return intern(new FunctionOrValue(klass, typeArguments));
     }
 
     public static TypeDescriptor union(TypeDescriptor... members){
@@ -747,7 +799,7 @@ public abstract class TypeDescriptor {
         if(single != null)
             return single;
         members = removeDuplicates(members);
-        return new Union(members);
+        return intern(new Union(members));
     }
 
     public static TypeDescriptor intersection(TypeDescriptor... members){
@@ -758,7 +810,7 @@ public abstract class TypeDescriptor {
         if(single != null)
             return single;
         members = removeDuplicates(members);
-        return new Intersection(members);
+        return intern(new Intersection(members));
     }
 
     /**
@@ -0,0 +1,129 @@
+package com.redhat.ceylon.compiler.java.runtime.model;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A thread-safe canonicalizing table: {@link #intern(Object)}
+ * returns the one instance equal to its argument, like
+ * {@link String#intern()}. Instances are only weakly
+ * referenced, so that interning doesn't keep them alive,
+ * and lookups never take a lock.
+ *
+ * @param <T> The type of the interned instances
+ */
+public final class WeakInterner<T> {
+
+    private final ConcurrentHashMap<Object, Ref<T>> map =
+            new ConcurrentHashMap<Object, Ref<T>>();
+
+    private final ReferenceQueue<T> queue = new ReferenceQueue<T>();
+
+    /**
+     * Returns the canonical instance equal to the given
+     * instance, which becomes the canonical instance if there
+     * was none.
+     */
+    public T intern(T instance) {
+        Ref<T> ref = map.get(new Lookup(instance));
+        if (ref != null) {
+            T existing = ref.get();
+            if (existing != null) {
+                return existing;
+            }
+        }
+        purge();
+        Ref<T> newRef = new Ref<T>(instance, queue);
+        while (true) {
+            ref = map.putIfAbsent(newRef, newRef);
+            if (ref == null) {
+                return instance;
+            }
+            T existing = ref.get();
+            if (existing != null) {
+                return existing;
+            }
+            // collected since we found it: drop it and try again
+            map.remove(ref, ref);
+        }
+    }
+
+    /**
+     * The number of interned instances, which may include
+     * instances which have been collected but not yet purged.
+     */
+    public int size() {
+        return map.size();
+    }
+
+    private void purge() {
+        java.lang.ref.Reference<? extends T> ref;
+        while ((ref = queue.poll()) != null) {
+            map.remove(ref);
+        }
+    }
+
+    /** The reference to an interned instance */
+    private static final class Ref<T> extends WeakReference<T> {
+        private final int hash;
+
+        Ref(T instance, ReferenceQueue<? super T> queue) {
+            super(instance, queue);
+            hash = instance.hashCode();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (other == this) {
+                return true;
+            }
+            Object instance = get();
+            // once collected, a reference is only equal to itself,
+            // so that purge() can still remove it
+            if (instance == null) {
+                return false;
+            }
+            if (other instanceof Ref) {
+                return instance.equals(((Ref<?>) other).get());
+            }
+            if (other instanceof Lookup) {
+                return instance.equals(((Lookup) other).instance);
+            }
+            return false;
+        }
+    }
+
+    /**
+     * The key used to look up an instance, which avoids
+     * creating a {@link WeakReference} for every lookup
+     */
+    private static final class Lookup {
+        private final Object instance;
+        private final int hash;
+
+        Lookup(Object instance) {
+            this.instance = instance;
+            hash = instance.hashCode();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (other instanceof Ref) {
+                Object interned = ((Ref<?>) other).get();
+                return interned != null && instance.equals(interned);
+            }
+            return false;
+        }
+    }
+}
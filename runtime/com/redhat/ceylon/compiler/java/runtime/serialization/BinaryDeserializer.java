@@ -0,0 +1,601 @@
+package com.redhat.ceylon.compiler.java.runtime.serialization;
+
+import static com.redhat.ceylon.compiler.java.runtime.serialization.BinaryFormat.*;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+
+import ceylon.language.Array;
+import ceylon.language.AssertionError;
+import ceylon.language.Boolean;
+import ceylon.language.Byte;
+import ceylon.language.Category$impl;
+import ceylon.language.Character;
+import ceylon.language.Float;
+import ceylon.language.Integer;
+import ceylon.language.Iterable;
+import ceylon.language.Iterator;
+import ceylon.language.Null;
+import ceylon.language.Sequence;
+import ceylon.language.Tuple;
+import ceylon.language.finished_;
+import ceylon.language.impl.BaseIterable;
+import ceylon.language.meta.declaration.ClassOrInterfaceDeclaration;
+import ceylon.language.meta.declaration.GenericDeclaration;
+import ceylon.language.meta.declaration.TypeParameter;
+import ceylon.language.meta.declaration.ValueDeclaration;
+import ceylon.language.meta.model.Type;
+import ceylon.language.serialization.Deconstructed;
+import ceylon.language.serialization.Deconstructed$impl;
+import ceylon.language.serialization.DeserializableReference;
+import ceylon.language.serialization.RealizableReference;
+import ceylon.language.serialization.Reference;
+
+import com.redhat.ceylon.compiler.java.Util;
+import com.redhat.ceylon.compiler.java.metadata.Variance;
+import com.redhat.ceylon.compiler.java.runtime.metamodel.Metamodel;
+import com.redhat.ceylon.compiler.java.runtime.model.TypeDescriptor;
+
+/**
+ * <p>Reads the graphs written by {@link BinarySerializer}.</p>
+ *
+ * <p>Each call to {@link #readObject()} reads one graph, whose
+ * instances are registered with a new
+ * {@link DeserializationContextImpl} and then reconstructed by
+ * their classes, and returns its root. A deserializer is not
+ * thread-safe.</p>
+ */
+public final class BinaryDeserializer {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final ReadableByteChannel channel;
+    private final ClassLoader classLoader;
+    private final ByteBuffer buffer;
+    private final ArrayList<TypeDescriptor> types = new ArrayList<TypeDescriptor>();
+    private final ArrayList<java.lang.Object> declarations = new ArrayList<java.lang.Object>();
+    private boolean headerRead;
+
+    public BinaryDeserializer(ReadableByteChannel channel, ClassLoader classLoader) {
+        this.channel = channel;
+        this.classLoader = classLoader;
+        this.buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        // nothing read yet
+        this.buffer.limit(0);
+    }
+
+    /**
+     * Resolves classes with the context class loader of the
+     * current thread
+     */
+    public BinaryDeserializer(ReadableByteChannel channel) {
+        this(channel, Thread.currentThread().getContextClassLoader());
+    }
+
+    /**
+     * Reads the next graph, and returns its root
+     *
+     * @throws EOFException if the stream ends before the graph
+     * @throws StreamCorruptedException if the stream was not
+     * written by a {@link BinarySerializer}
+     */
+    public java.lang.Object readObject() throws IOException {
+        if (!headerRead) {
+            require(5);
+            if (buffer.getInt() != MAGIC || buffer.get() != VERSION) {
+                throw new StreamCorruptedException("not a Ceylon binary serialization stream");
+            }
+            headerRead = true;
+        }
+        Graph graph = new Graph();
+        java.lang.Object root = readValue(graph);
+        byte tag;
+        while ((tag = readByte()) == RECORD) {
+            Record record = new Record(graph, readType());
+            readEntries(record);
+            graph.records.add(record);
+        }
+        if (tag != END) {
+            throw new StreamCorruptedException("unexpected tag " + tag);
+        }
+        graph.realize();
+        if (root instanceof RefId) {
+            return graph.realized[((RefId) root).id].instance();
+        }
+        return root;
+    }
+
+    //
+    // Graphs
+
+    /** The id of an instance of the graph */
+    private static final class RefId {
+        final int id;
+        RefId(int id) {
+            this.id = id;
+        }
+    }
+
+    private static final class Graph {
+        final ArrayList<Record> records = new ArrayList<Record>();
+        final DeserializationContextImpl context = new DeserializationContextImpl();
+        Reference<?>[] references;
+        RealizableReference<?>[] realized;
+
+        /**
+         * Registers every instance with the context, then hands
+         * it its record
+         */
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        void realize() {
+            int size = records.size();
+            references = new Reference<?>[size];
+            for (int id = 0; id < size; id++) {
+                register(id);
+            }
+            realized = new RealizableReference<?>[size];
+            for (int id = 0; id < size; id++) {
+                realized[id] = ((DeserializableReference) references[id]).deserialize(records.get(id));
+            }
+        }
+
+        /**
+         * Registers the instance with the given id, after its outer
+         * instance, which the context needs to instantiate it
+         */
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        private Reference<?> register(int id) {
+            Reference<?> reference = references[id];
+            if (reference != null) {
+                return reference;
+            }
+            Record record = records.get(id);
+            TypeDescriptor type = record.type;
+            if (record.outer == null) {
+                reference = context.reference(type, Integer.instance(id),
+                        (ceylon.language.meta.model.Class) Metamodel.getAppliedMetamodel(type));
+            }
+            else if (record.outer instanceof RefId) {
+                Reference<?> outer = register(((RefId) record.outer).id);
+                reference = context.memberReference(((TypeDescriptor.Member) type).getContainer(),
+                        type, Integer.instance(id),
+                        (ceylon.language.meta.model.MemberClass) Metamodel.getAppliedMetamodel(type),
+                        outer);
+            }
+            else {
+                throw new AssertionError("outer instance is not part of the graph: " + type);
+            }
+            references[id] = reference;
+            return reference;
+        }
+
+        java.lang.Object resolve(java.lang.Object value) {
+            return value instanceof RefId ? references[((RefId) value).id] : value;
+        }
+    }
+
+    /** The state of an instance, as read from its record */
+    private static final class Record
+            extends BaseIterable<Sequence<? extends java.lang.Object>, java.lang.Object>
+            implements Deconstructed, DeserializingReference.Elements {
+
+        final Graph graph;
+        final TypeDescriptor type;
+        java.lang.Object outer;
+        final ArrayList<TypeParameter> typeParameters = new ArrayList<TypeParameter>(2);
+        final ArrayList<TypeDescriptor> typeArguments = new ArrayList<TypeDescriptor>(2);
+        final ArrayList<ValueDeclaration> attributes = new ArrayList<ValueDeclaration>();
+        final ArrayList<java.lang.Object> values = new ArrayList<java.lang.Object>();
+        /** The elements read one at a time, by index */
+        ArrayList<java.lang.Object> elements;
+        /** The elements read in bulk, as a primitive array */
+        java.lang.Object primitiveElements;
+        long primitiveIndex;
+
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        private final Category$impl<? super java.lang.Object> category$this =
+                new Category$impl(ceylon.language.Object.$TypeDescriptor$, this);
+
+        Record(Graph graph, TypeDescriptor type) {
+            super(ceylon.language.Object.$TypeDescriptor$, Null.$TypeDescriptor$);
+            this.graph = graph;
+            this.type = type;
+        }
+
+        void putElement(long index, java.lang.Object value) {
+            if (elements == null) {
+                elements = new ArrayList<java.lang.Object>();
+            }
+            int i = Util.toInt(index);
+            while (elements.size() <= i) {
+                elements.add(null);
+            }
+            elements.set(i, value);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <Instance> Reference<Instance> $getOuterInstance(TypeDescriptor $reifiedInstance) {
+            return (Reference<Instance>) graph.resolve(outer);
+        }
+
+        @Override
+        public Type<? extends java.lang.Object> getTypeArgument(TypeParameter typeParameter) {
+            int i = typeParameters.indexOf(typeParameter);
+            if (i < 0) {
+                throw new AssertionError("no type argument for " + typeParameter);
+            }
+            return Metamodel.getAppliedMetamodel(typeArguments.get(i));
+        }
+
+        @Override
+        public <Instance> java.lang.Object getValue(TypeDescriptor $reifiedInstance,
+                ValueDeclaration attribute) {
+            int i = attributes.indexOf(attribute);
+            if (i < 0) {
+                throw new AssertionError("no value for " + attribute);
+            }
+            return graph.resolve(values.get(i));
+        }
+
+        @Override
+        public <Instance> java.lang.Object getElement(TypeDescriptor $reifiedInstance,
+                long index) {
+            if (elements == null || index < 0 || index >= elements.size()) {
+                throw new AssertionError("no element at index " + index);
+            }
+            return graph.resolve(elements.get((int) index));
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <Instance> void getElements(TypeDescriptor $reifiedInstance,
+                long index, Array<Instance> array) {
+            java.lang.Object target = array.toArray();
+            int size = Util.toInt(array.getSize());
+            if (primitiveElements != null
+                    && primitiveElements.getClass() == target.getClass()
+                    && index >= primitiveIndex
+                    && index - primitiveIndex + size <= java.lang.reflect.Array.getLength(primitiveElements)) {
+                System.arraycopy(primitiveElements, (int) (index - primitiveIndex), target, 0, size);
+            }
+            else {
+                for (int i = 0; i < size; i++) {
+                    array.set(i, (Instance) getElement($reifiedInstance, index + i));
+                }
+            }
+        }
+
+        /** The attribute values */
+        @Override
+        public Iterator<? extends Sequence<? extends java.lang.Object>> iterator() {
+            return new Iterator<Sequence<? extends java.lang.Object>>() {
+                int attribute = 0;
+                @Override
+                public java.lang.Object next() {
+                    if (attribute < attributes.size()) {
+                        int i = attribute++;
+                        return entry(attributes.get(i), values.get(i));
+                    }
+                    return finished_.get_();
+                }
+            };
+        }
+
+        /**
+         * The elements which are instances of the graph, so that
+         * they get reconstructed too
+         */
+        @Override
+        public java.util.Iterator<Reference<?>> elementReferences() {
+            ArrayList<Reference<?>> references = new ArrayList<Reference<?>>();
+            if (elements != null) {
+                for (java.lang.Object value : elements) {
+                    if (value instanceof RefId) {
+                        references.add(graph.references[((RefId) value).id]);
+                    }
+                }
+            }
+            return references.iterator();
+        }
+
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        private Sequence<? extends java.lang.Object> entry(ValueDeclaration attribute,
+                java.lang.Object value) {
+            return new Tuple(ceylon.language.Object.$TypeDescriptor$,
+                    new java.lang.Object[]{ attribute, graph.resolve(value) });
+        }
+
+        @Override
+        public Deconstructed$impl $ceylon$language$serialization$Deconstructed$impl() {
+            throw Util.makeUnimplementedMixinAccessException();
+        }
+
+        @Override
+        public Category$impl<? super java.lang.Object> $ceylon$language$Category$impl() {
+            return category$this;
+        }
+
+        @Override
+        public boolean containsAny(Iterable<? extends java.lang.Object, ? extends java.lang.Object> elements) {
+            return category$this.containsAny(elements);
+        }
+
+        @Override
+        public boolean containsEvery(Iterable<? extends java.lang.Object, ? extends java.lang.Object> elements) {
+            return category$this.containsEvery(elements);
+        }
+    }
+
+    private void readEntries(Record record) throws IOException {
+        byte entry;
+        while ((entry = readByte()) != END) {
+            switch (entry) {
+            case E_VALUE:
+                record.attributes.add((ValueDeclaration) readDeclaration());
+                record.values.add(readValue(record.graph));
+                break;
+            case E_TYPE_ARGUMENT:
+                record.typeParameters.add((TypeParameter) readDeclaration());
+                record.typeArguments.add(readType());
+                break;
+            case E_OUTER:
+                record.outer = readValue(record.graph);
+                break;
+            case E_ELEMENT: {
+                long index = readVarLong();
+                record.putElement(index, readValue(record.graph));
+                break;
+            }
+            case E_ELEMENTS:
+                record.primitiveIndex = readVarLong();
+                record.primitiveElements = readPrimitiveElements();
+                break;
+            default:
+                throw new StreamCorruptedException("unexpected entry " + entry);
+            }
+        }
+    }
+
+    private java.lang.Object readPrimitiveElements() throws IOException {
+        byte kind = readByte();
+        int count = Util.toInt(readVarLong());
+        switch (kind) {
+        case P_INTEGER: {
+            long[] longs = new long[count];
+            for (int i = 0; i < count; i++) {
+                longs[i] = readSignedVarLong();
+            }
+            return longs;
+        }
+        case P_FLOAT: {
+            double[] doubles = new double[count];
+            for (int i = 0; i < count;) {
+                require(8);
+                int n = Math.min(count - i, buffer.remaining() / 8);
+                buffer.asDoubleBuffer().get(doubles, i, n);
+                buffer.position(buffer.position() + n * 8);
+                i += n;
+            }
+            return doubles;
+        }
+        case P_BYTE:
+            return readBytes(count);
+        case P_BOOLEAN: {
+            boolean[] booleans = new boolean[count];
+            for (int i = 0; i < count; i += 8) {
+                int bits = readByte();
+                for (int j = 0; j < 8 && i + j < count; j++) {
+                    booleans[i + j] = (bits & (1 << j)) != 0;
+                }
+            }
+            return booleans;
+        }
+        case P_CHARACTER: {
+            int[] codePoints = new int[count];
+            for (int i = 0; i < count; i++) {
+                codePoints[i] = (int) readVarLong();
+            }
+            return codePoints;
+        }
+        default:
+            throw new StreamCorruptedException("unexpected element kind " + kind);
+        }
+    }
+
+    //
+    // Values
+
+    private java.lang.Object readValue(Graph graph) throws IOException {
+        byte tag = readByte();
+        switch (tag) {
+        case V_NULL:
+            return null;
+        case V_INTEGER:
+            return Integer.instance(readSignedVarLong());
+        case V_FLOAT:
+            require(8);
+            return Float.instance(buffer.getDouble());
+        case V_BYTE:
+            return Byte.instance(readByte());
+        case V_TRUE:
+            return Boolean.instance(true);
+        case V_FALSE:
+            return Boolean.instance(false);
+        case V_CHARACTER:
+            return Character.instance((int) readVarLong());
+        case V_STRING:
+            return ceylon.language.String.instance(readString());
+        case V_REFERENCE:
+            return new RefId(Util.toInt(readVarLong()));
+        case V_OBJECT:
+            return readToplevelObject(readType());
+        default:
+            throw new StreamCorruptedException("unexpected value " + tag);
+        }
+    }
+
+    private static java.lang.Object readToplevelObject(TypeDescriptor type) {
+        java.lang.Class<?> klass = ((TypeDescriptor.Class) type).getKlass();
+        try {
+            return klass.getMethod("get_").invoke(null);
+        } catch (InvocationTargetException e) {
+            throw new AssertionError("error thrown during initialization of " + klass.getName()
+                    + (e.getCause().getMessage() != null ? ": " + e.getCause().getMessage() : ""));
+        } catch (NoSuchMethodException|IllegalAccessException e) {
+            throw new AssertionError("not a toplevel object: " + klass.getName());
+        }
+    }
+
+    //
+    // Dictionaries
+
+    private TypeDescriptor readType() throws IOException {
+        int ref = Util.toInt(readVarLong());
+        if (ref != 0) {
+            return types.get(ref - 1);
+        }
+        TypeDescriptor type;
+        byte kind = readByte();
+        switch (kind) {
+        case T_CLASS: {
+            java.lang.Class<?> klass = loadClass(readString());
+            Variance[] variance = new Variance[Util.toInt(readVarLong())];
+            for (int i = 0; i < variance.length; i++) {
+                variance[i] = Variance.values()[readByte()];
+            }
+            type = TypeDescriptor.klass(klass, variance, readTypes());
+            break;
+        }
+        case T_MEMBER: {
+            TypeDescriptor container = readType();
+            type = TypeDescriptor.member(container, readType());
+            break;
+        }
+        case T_UNION:
+            type = TypeDescriptor.union(readTypes());
+            break;
+        case T_INTERSECTION:
+            type = TypeDescriptor.intersection(readTypes());
+            break;
+        case T_NOTHING:
+            type = TypeDescriptor.NothingType;
+            break;
+        default:
+            throw new StreamCorruptedException("unexpected type " + kind);
+        }
+        types.add(type);
+        return type;
+    }
+
+    private TypeDescriptor[] readTypes() throws IOException {
+        TypeDescriptor[] types = new TypeDescriptor[Util.toInt(readVarLong())];
+        for (int i = 0; i < types.length; i++) {
+            types[i] = readType();
+        }
+        return types;
+    }
+
+    private java.lang.Object readDeclaration() throws IOException {
+        int ref = Util.toInt(readVarLong());
+        if (ref != 0) {
+            return declarations.get(ref - 1);
+        }
+        byte kind = readByte();
+        java.lang.Class<?> container = loadClass(readString());
+        java.lang.String name = readString();
+        java.lang.Object declaration;
+        switch (kind) {
+        case D_ATTRIBUTE:
+            declaration = ((ClassOrInterfaceDeclaration) Metamodel.getOrCreateMetamodel(container))
+                    .getDeclaredMemberDeclaration(ValueDeclaration.$TypeDescriptor$, name);
+            break;
+        case D_TYPE_PARAMETER:
+            declaration = ((GenericDeclaration) Metamodel.getOrCreateMetamodel(container))
+                    .getTypeParameterDeclaration(name);
+            break;
+        default:
+            throw new StreamCorruptedException("unexpected declaration " + kind);
+        }
+        if (declaration == null) {
+            throw new AssertionError("no such declaration: " + container.getName() + "." + name);
+        }
+        declarations.add(declaration);
+        return declaration;
+    }
+
+    private java.lang.Class<?> loadClass(java.lang.String name) {
+        try {
+            return java.lang.Class.forName(name, false, classLoader);
+        } catch (ClassNotFoundException e) {
+            throw new AssertionError("class not found: " + name);
+        }
+    }
+
+    //
+    // Decoding
+
+    /**
+     * Reads from the channel until at least the given number
+     * of bytes are buffered
+     */
+    private void require(int bytes) throws IOException {
+        if (buffer.remaining() >= bytes) {
+            return;
+        }
+        buffer.compact();
+        try {
+            while (buffer.position() < bytes) {
+                if (channel.read(buffer) < 0) {
+                    throw new EOFException();
+                }
+            }
+        } finally {
+            buffer.flip();
+        }
+    }
+
+    private byte readByte() throws IOException {
+        require(1);
+        return buffer.get();
+    }
+
+    private long readVarLong() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new StreamCorruptedException("malformed varint");
+    }
+
+    private long readSignedVarLong() throws IOException {
+        long value = readVarLong();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private java.lang.String readString() throws IOException {
+        return new java.lang.String(readBytes(Util.toInt(readVarLong())),
+                StandardCharsets.UTF_8);
+    }
+
+    private byte[] readBytes(int count) throws IOException {
+        byte[] bytes = new byte[count];
+        for (int i = 0; i < count;) {
+            require(1);
+            int n = Math.min(count - i, buffer.remaining());
+            buffer.get(bytes, i, n);
+            i += n;
+        }
+        return bytes;
+    }
+}
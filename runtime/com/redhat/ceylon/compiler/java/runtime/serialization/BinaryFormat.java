@@ -0,0 +1,79 @@
+package com.redhat.ceylon.compiler.java.runtime.serialization;
+
+/**
+ * <p>The constants of the stream format written by
+ * {@link BinarySerializer} and read by {@link BinaryDeserializer}.</p>
+ *
+ * <p>A stream starts with {@link #MAGIC} and {@link #VERSION},
+ * followed by any number of object graphs. A graph is the value
+ * of its root, followed by the records of the instances it
+ * references, each preceded by {@link #RECORD}, and ends with
+ * {@link #END}. Instances are numbered in the order of their
+ * records, starting from zero, and values refer to them by
+ * those numbers, so that shared and cyclic references survive.</p>
+ *
+ * <p>A record is the type of the instance followed by its
+ * entries ({@code E_*}), and ends with {@link #END}. A value is
+ * one of the {@code V_*} tags followed by its encoding.</p>
+ *
+ * <p>Types and declarations are written in full the first time
+ * they're used in the stream, and after that just by their number
+ * in a dictionary which lasts as long as the stream. Every such
+ * reference is a varint which is zero for a new entry, followed
+ * by its definition, and otherwise the number of the entry plus
+ * one.</p>
+ *
+ * <p>Integers are written as varints: seven bits per byte, least
+ * significant first, with the high bit set on all but the last
+ * byte. Signed integers are zigzag encoded first, so that small
+ * negative values stay small.</p>
+ */
+final class BinaryFormat {
+
+    private BinaryFormat() {}
+
+    static final int MAGIC = 0xCE110B1E;
+    static final byte VERSION = 1;
+
+    static final byte END = 0;
+    static final byte RECORD = 1;
+
+    // values
+    static final byte V_NULL = 0;
+    static final byte V_INTEGER = 1;
+    static final byte V_FLOAT = 2;
+    static final byte V_BYTE = 3;
+    static final byte V_TRUE = 4;
+    static final byte V_FALSE = 5;
+    static final byte V_CHARACTER = 6;
+    static final byte V_STRING = 7;
+    /** An instance with a record in the same graph */
+    static final byte V_REFERENCE = 8;
+    /** A toplevel object, given by its class */
+    static final byte V_OBJECT = 9;
+
+    // record entries
+    static final byte E_VALUE = 1;
+    static final byte E_TYPE_ARGUMENT = 2;
+    static final byte E_OUTER = 3;
+    static final byte E_ELEMENT = 4;
+    static final byte E_ELEMENTS = 5;
+
+    // primitive element kinds of E_ELEMENTS
+    static final byte P_INTEGER = 1;
+    static final byte P_FLOAT = 2;
+    static final byte P_BYTE = 3;
+    static final byte P_BOOLEAN = 4;
+    static final byte P_CHARACTER = 5;
+
+    // types
+    static final byte T_CLASS = 1;
+    static final byte T_MEMBER = 2;
+    static final byte T_UNION = 3;
+    static final byte T_INTERSECTION = 4;
+    static final byte T_NOTHING = 5;
+
+    // declarations
+    static final byte D_ATTRIBUTE = 1;
+    static final byte D_TYPE_PARAMETER = 2;
+}
@@ -0,0 +1,452 @@
+package com.redhat.ceylon.compiler.java.runtime.serialization;
+
+import static com.redhat.ceylon.compiler.java.runtime.serialization.BinaryFormat.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+
+import ceylon.language.Array;
+import ceylon.language.Boolean;
+import ceylon.language.Byte;
+import ceylon.language.Character;
+import ceylon.language.Empty;
+import ceylon.language.Float;
+import ceylon.language.Integer;
+import ceylon.language.Tuple;
+import ceylon.language.meta.declaration.NestableDeclaration;
+import ceylon.language.meta.declaration.TypeParameter;
+import ceylon.language.meta.declaration.ValueDeclaration;
+import ceylon.language.meta.model.ClassModel;
+import ceylon.language.meta.model.Type;
+import ceylon.language.serialization.Deconstructor;
+import ceylon.language.serialization.Deconstructor$impl;
+import ceylon.language.serialization.SerializableReference;
+
+import com.redhat.ceylon.compiler.java.Util;
+import com.redhat.ceylon.compiler.java.language.AbstractCallable;
+import com.redhat.ceylon.compiler.java.metadata.Variance;
+import com.redhat.ceylon.compiler.java.runtime.metamodel.Metamodel;
+import com.redhat.ceylon.compiler.java.runtime.model.TypeDescriptor;
+
+/**
+ * <p>Writes graphs of instances of {@code serializable} classes to
+ * a channel, in the compact binary format described by
+ * {@link BinaryFormat}, which {@link BinaryDeserializer} reads back.</p>
+ *
+ * <p>Each call to {@link #writeObject(Object)} writes the graph of
+ * instances reachable from the given root, registering them with
+ * a new {@link SerializationContextImpl}. Shared and cyclic
+ * references are written once. {@code Integer}, {@code Float},
+ * {@code Byte}, {@code Boolean}, {@code Character} and
+ * {@code String} values are written inline, and the elements of
+ * arrays of the first five in bulk. Types and declarations are
+ * written once per stream.</p>
+ *
+ * <p>Output is buffered: {@link #writeObject(Object)} flushes the
+ * buffer once the graph has been written. A serializer is not
+ * thread-safe.</p>
+ */
+public final class BinarySerializer {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final HashMap<TypeDescriptor, java.lang.Integer> types =
+            new HashMap<TypeDescriptor, java.lang.Integer>();
+    private final HashMap<java.lang.Object, java.lang.Integer> declarations =
+            new HashMap<java.lang.Object, java.lang.Integer>();
+    private boolean headerWritten;
+
+    /** The context of the graph being written */
+    private SerializationContextImpl context;
+    /** The instances of the graph whose records are still to be written */
+    private final ArrayDeque<SerializableReference<java.lang.Object>> queue =
+            new ArrayDeque<SerializableReference<java.lang.Object>>();
+    private long nextId;
+
+    private final Writer writer = new Writer();
+
+    private final AbstractCallable<Deconstructor> deconstructor =
+            new AbstractCallable<Deconstructor>(
+                    TypeDescriptor.klass(Deconstructor.class),
+                    TypeDescriptor.klass(Tuple.class,
+                            TypeDescriptor.klass(ClassModel.class),
+                            TypeDescriptor.klass(ClassModel.class),
+                            Empty.$TypeDescriptor$),
+                    "deconstructor", (short)-1) {
+        @Override
+        public Deconstructor $call$(java.lang.Object classModel) {
+            return writer;
+        }
+    };
+
+    public BinarySerializer(WritableByteChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Writes the graph of instances reachable from the given root,
+     * and flushes it to the channel
+     */
+    public void writeObject(java.lang.Object root) throws IOException {
+        context = new SerializationContextImpl();
+        nextId = 0;
+        queue.clear();
+        try {
+            if (!headerWritten) {
+                require(5);
+                buffer.putInt(MAGIC);
+                buffer.put(VERSION);
+                headerWritten = true;
+            }
+            writeValue(root);
+            SerializableReference<java.lang.Object> ref;
+            while ((ref = queue.poll()) != null) {
+                writeByte(RECORD);
+                writeType(Metamodel.getTypeDescriptor(ref.instance()));
+                ref.serialize(deconstructor);
+                writeByte(END);
+            }
+            writeByte(END);
+            flush();
+        } catch (Failure e) {
+            throw e.getCause();
+        } finally {
+            // don't keep the graph alive
+            context = null;
+            queue.clear();
+        }
+    }
+
+    /** Writes out whatever is buffered */
+    public void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    //
+    // Values
+
+    private void writeValue(java.lang.Object value) {
+        if (value == null) {
+            writeByte(V_NULL);
+        }
+        else if (value instanceof Integer) {
+            writeByte(V_INTEGER);
+            writeSignedVarLong(((Integer) value).longValue());
+        }
+        else if (value instanceof Float) {
+            require(9);
+            buffer.put(V_FLOAT);
+            buffer.putDouble(((Float) value).doubleValue());
+        }
+        else if (value instanceof Byte) {
+            require(2);
+            buffer.put(V_BYTE);
+            buffer.put(((Byte) value).byteValue());
+        }
+        else if (value instanceof Boolean) {
+            writeByte(((Boolean) value).booleanValue() ? V_TRUE : V_FALSE);
+        }
+        else if (value instanceof Character) {
+            writeByte(V_CHARACTER);
+            writeVarLong(((Character) value).intValue());
+        }
+        else if (value instanceof ceylon.language.String) {
+            writeByte(V_STRING);
+            writeString(((ceylon.language.String) value).value);
+        }
+        else if (isToplevelObject(value.getClass())) {
+            writeByte(V_OBJECT);
+            writeType(TypeDescriptor.klass(value.getClass()));
+        }
+        else {
+            writeByte(V_REFERENCE);
+            writeVarLong(reference(value));
+        }
+    }
+
+    /**
+     * The id of the given instance, registering it and queuing
+     * its record if it's the first time we see it
+     */
+    private long reference(java.lang.Object instance) {
+        java.lang.Object id = context.findId(instance);
+        if (id != null) {
+            return ((Integer) id).longValue();
+        }
+        long newId = nextId++;
+        queue.add(context.reference(Metamodel.getTypeDescriptor(instance),
+                Integer.instance(newId), instance));
+        return newId;
+    }
+
+    private static final ClassValue<java.lang.Boolean> TOPLEVEL_OBJECT =
+            new ClassValue<java.lang.Boolean>() {
+        @Override
+        protected java.lang.Boolean computeValue(java.lang.Class<?> klass) {
+            if (!klass.isAnnotationPresent(com.redhat.ceylon.compiler.java.metadata.Object.class)) {
+                return false;
+            }
+            try {
+                klass.getMethod("get_");
+                return true;
+            } catch (NoSuchMethodException e) {
+                // a member or local object
+                return false;
+            }
+        }
+    };
+
+    static boolean isToplevelObject(java.lang.Class<?> klass) {
+        return TOPLEVEL_OBJECT.get(klass);
+    }
+
+    //
+    // Dictionaries
+
+    private void writeType(TypeDescriptor type) {
+        java.lang.Integer id = types.get(type);
+        if (id != null) {
+            writeVarLong(id + 1);
+            return;
+        }
+        writeByte((byte) 0);
+        if (type instanceof TypeDescriptor.Class) {
+            TypeDescriptor.Class klass = (TypeDescriptor.Class) type;
+            writeByte(T_CLASS);
+            writeString(klass.getKlass().getName());
+            Variance[] variance = klass.getUseSiteVariance();
+            writeVarLong(variance.length);
+            for (Variance v : variance) {
+                writeByte((byte) v.ordinal());
+            }
+            writeTypes(klass.getTypeArguments());
+        }
+        else if (type instanceof TypeDescriptor.Member) {
+            writeByte(T_MEMBER);
+            writeType(((TypeDescriptor.Member) type).getContainer());
+            writeType(((TypeDescriptor.Member) type).getMember());
+        }
+        else if (type instanceof TypeDescriptor.Union) {
+            writeByte(T_UNION);
+            writeTypes(((TypeDescriptor.Union) type).getMembers());
+        }
+        else if (type instanceof TypeDescriptor.Intersection) {
+            writeByte(T_INTERSECTION);
+            writeTypes(((TypeDescriptor.Intersection) type).getMembers());
+        }
+        else if (type == TypeDescriptor.NothingType) {
+            writeByte(T_NOTHING);
+        }
+        else {
+            throw new ceylon.language.AssertionError("type cannot be serialized: " + type);
+        }
+        // nested types were numbered first, just as they're read
+        types.put(type, types.size());
+    }
+
+    private void writeTypes(TypeDescriptor[] types) {
+        writeVarLong(types.length);
+        for (TypeDescriptor type : types) {
+            writeType(type);
+        }
+    }
+
+    private void writeDeclaration(java.lang.Object declaration) {
+        java.lang.Integer id = declarations.get(declaration);
+        if (id != null) {
+            writeVarLong(id + 1);
+            return;
+        }
+        writeByte((byte) 0);
+        if (declaration instanceof ValueDeclaration) {
+            ValueDeclaration attribute = (ValueDeclaration) declaration;
+            writeByte(D_ATTRIBUTE);
+            writeString(Metamodel.getJavaClass((NestableDeclaration) attribute.getContainer()).getName());
+            writeString(attribute.getName());
+        }
+        else {
+            TypeParameter typeParameter = (TypeParameter) declaration;
+            writeByte(D_TYPE_PARAMETER);
+            writeString(Metamodel.getJavaClass(typeParameter.getContainer()).getName());
+            writeString(typeParameter.getName());
+        }
+        declarations.put(declaration, declarations.size());
+    }
+
+    //
+    // Record entries
+
+    private final class Writer implements Deconstructor {
+
+        @Override
+        public <Instance> void putOuterInstance(TypeDescriptor $reifiedInstance,
+                Instance outerInstance) {
+            writeByte(E_OUTER);
+            writeValue(outerInstance);
+        }
+
+        @Override
+        public void putTypeArgument(TypeParameter typeParameter,
+                Type<? extends java.lang.Object> typeArgument) {
+            writeByte(E_TYPE_ARGUMENT);
+            writeDeclaration(typeParameter);
+            writeType(Metamodel.getTypeDescriptor(typeArgument));
+        }
+
+        @Override
+        public <Instance> void putValue(TypeDescriptor $reifiedInstance,
+                ValueDeclaration attribute, Instance referenced) {
+            writeByte(E_VALUE);
+            writeDeclaration(attribute);
+            writeValue(referenced);
+        }
+
+        @Override
+        public <Instance> void putElement(TypeDescriptor $reifiedInstance,
+                long index, Instance referenced) {
+            writeByte(E_ELEMENT);
+            writeVarLong(index);
+            writeValue(referenced);
+        }
+
+        @Override
+        public <Instance> void putElements(TypeDescriptor $reifiedInstance,
+                long index, Array<Instance> elements) {
+            java.lang.Object array = elements.toArray();
+            if (array instanceof long[]) {
+                long[] longs = (long[]) array;
+                writeElementsHeader(index, P_INTEGER, longs.length);
+                for (long l : longs) {
+                    writeSignedVarLong(l);
+                }
+            }
+            else if (array instanceof double[]) {
+                double[] doubles = (double[]) array;
+                writeElementsHeader(index, P_FLOAT, doubles.length);
+                for (int i = 0; i < doubles.length;) {
+                    require(8);
+                    int n = Math.min(doubles.length - i, buffer.remaining() / 8);
+                    buffer.asDoubleBuffer().put(doubles, i, n);
+                    buffer.position(buffer.position() + n * 8);
+                    i += n;
+                }
+            }
+            else if (array instanceof byte[]) {
+                byte[] bytes = (byte[]) array;
+                writeElementsHeader(index, P_BYTE, bytes.length);
+                writeBytes(bytes);
+            }
+            else if (array instanceof boolean[]) {
+                boolean[] booleans = (boolean[]) array;
+                writeElementsHeader(index, P_BOOLEAN, booleans.length);
+                // eight to a byte
+                for (int i = 0; i < booleans.length; i += 8) {
+                    int bits = 0;
+                    for (int j = 0; j < 8 && i + j < booleans.length; j++) {
+                        if (booleans[i + j]) {
+                            bits |= 1 << j;
+                        }
+                    }
+                    writeByte((byte) bits);
+                }
+            }
+            else if (array instanceof int[]) {
+                int[] codePoints = (int[]) array;
+                writeElementsHeader(index, P_CHARACTER, codePoints.length);
+                for (int c : codePoints) {
+                    writeVarLong(c);
+                }
+            }
+            else {
+                for (int i = 0; i < elements.getSize(); i++) {
+                    putElement($reifiedInstance, index + i, elements.getFromFirst(i));
+                }
+            }
+        }
+
+        private void writeElementsHeader(long index, byte kind, int count) {
+            writeByte(E_ELEMENTS);
+            writeVarLong(index);
+            writeByte(kind);
+            writeVarLong(count);
+        }
+
+        @Override
+        public Deconstructor$impl $ceylon$language$serialization$Deconstructor$impl() {
+            throw Util.makeUnimplementedMixinAccessException();
+        }
+    }
+
+    //
+    // Encoding
+
+    private void require(int bytes) {
+        if (buffer.remaining() < bytes) {
+            try {
+                flush();
+            } catch (IOException e) {
+                throw new Failure(e);
+            }
+        }
+    }
+
+    private void writeByte(byte b) {
+        require(1);
+        buffer.put(b);
+    }
+
+    private void writeVarLong(long value) {
+        require(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private void writeSignedVarLong(long value) {
+        writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    private void writeString(java.lang.String string) {
+        // strings are mostly ASCII, and then the length in chars
+        // is the length in bytes
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(bytes.length);
+        writeBytes(bytes);
+    }
+
+    private void writeBytes(byte[] bytes) {
+        for (int i = 0; i < bytes.length;) {
+            require(1);
+            int n = Math.min(bytes.length - i, buffer.remaining());
+            buffer.put(bytes, i, n);
+            i += n;
+        }
+    }
+
+    /**
+     * Carries an {@link IOException} through the {@link Deconstructor}
+     * methods, which can't throw it
+     */
+    private static final class Failure extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+        Failure(IOException cause) {
+            super(cause);
+        }
+        @Override
+        public synchronized IOException getCause() {
+            return (IOException) super.getCause();
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.redhat.ceylon.compiler.java.runtime.serialization;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import ceylon.language.Integer;
+import ceylon.language.Iterator;
+import ceylon.language.Null;
+import ceylon.language.finished_;
+import ceylon.language.impl.BaseIterable;
+import ceylon.language.serialization.SerializableReference;
+import ceylon.language.serialization.SerializationContext;
+
+import com.redhat.ceylon.compiler.java.metadata.Ceylon;
+import com.redhat.ceylon.compiler.java.metadata.Class;
+import com.redhat.ceylon.compiler.java.metadata.SatisfiedTypes;
+import com.redhat.ceylon.compiler.java.runtime.model.ReifiedType;
+import com.redhat.ceylon.compiler.java.runtime.model.TypeDescriptor;
+
+/**
+ * <p>A thread-safe implementation of {@link SerializationContext},
+ * which lets several threads register the instances of a graph at
+ * the same time.</p>
+ *
+ * <p>Besides {@link #reference(TypeDescriptor, Object, Object)},
+ * which takes the id from the caller, the context can
+ * {@linkplain #claim(TypeDescriptor, Object) assign ids} itself, so
+ * that threads which come across the same shared instance agree on
+ * its id, and exactly one of them gets to serialize it. Which one
+ * does, and so which id an instance gets, depends on the timing of
+ * the threads.</p>
+ *
+ * <p>The {@linkplain #iterator() iterator} is weakly consistent: it
+ * never fails, but might not see the references registered after it
+ * was created.</p>
+ */
+@Ceylon(major=7)
+@Class
+@SatisfiedTypes("ceylon.language.serialization::SerializationContext")
+public class ConcurrentSerializationContextImpl
+        extends BaseIterable<SerializableReference<Object>, Object>
+        implements SerializationContext, ReifiedType {
+
+    private final ConcurrentHashMap<IdentityKey, Object> instanceToId = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Object, SerializableReference<Object>> idToReference = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong();
+
+    public ConcurrentSerializationContextImpl() {
+        super(TypeDescriptor.klass(SerializableReferenceImpl.class, ceylon.language.Object.$TypeDescriptor$), Null.$TypeDescriptor$);
+    }
+
+    /** Compares instances by identity, like an {@link java.util.IdentityHashMap} */
+    private static final class IdentityKey {
+        private final Object instance;
+        IdentityKey(Object instance) {
+            this.instance = instance;
+        }
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(instance);
+        }
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof IdentityKey
+                    && ((IdentityKey)obj).instance == instance;
+        }
+    }
+
+    @Override
+    public boolean contains(Object instance) {
+        return instanceToId.containsKey(new IdentityKey(instance));
+    }
+
+    /** The id of the given instance, or null if it has not been registered */
+    public Object findId(Object instance) {
+        return instanceToId.get(new IdentityKey(instance));
+    }
+
+    /**
+     * "Create a reference to the given [[instance]] of
+     [[Class]], assigning it the given [[identifer|id]]."
+     @throws Exception "if there is already an instance with the given
+         identifier"
+     */
+    @Override
+    public <Instance> SerializableReference<Instance> reference(TypeDescriptor reified$Instance, Object id, Instance instance) {
+        Object otherId = instanceToId.putIfAbsent(new IdentityKey(instance), id);
+        if (otherId != null
+                && !otherId.equals(id)) {
+            throw new ceylon.language.AssertionError("Instance " + instance + " has already been registered with id " + otherId);
+        }
+        return register(reified$Instance, id, instance);
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private <Instance> SerializableReference<Instance> register(TypeDescriptor reified$Instance, Object id, Instance instance) {
+        SerializableReferenceImpl ref = new SerializableReferenceImpl(reified$Instance, null, id, instance);
+        SerializableReference<Object> prevReference = idToReference.putIfAbsent(id, ref);
+        if (prevReference != null) {
+            throw new ceylon.language.AssertionError("A different instance has already been registered with id "+id+": \"" + prevReference.instance() +"\", \""+ instance+"\"");
+        }
+        return ref;
+    }
+
+    /**
+     * Registers the given instance with a new {@link Integer} id,
+     * unless it has already been registered, by this thread or by
+     * another one.
+     *
+     * @return The reference to the instance, which the caller
+     * is now responsible for serializing, or null if it had
+     * already been registered
+     */
+    public <Instance> SerializableReference<Instance> claim(TypeDescriptor reified$Instance, Instance instance) {
+        IdentityKey key = new IdentityKey(instance);
+        if (instanceToId.containsKey(key)) {
+            return null;
+        }
+        Integer id = Integer.instance(nextId.getAndIncrement());
+        if (instanceToId.putIfAbsent(key, id) != null) {
+            // another thread got there first: the id is just skipped
+            return null;
+        }
+        return register(reified$Instance, id, instance);
+    }
+
+    @Override
+    public Iterator<? extends SerializableReference<Object>> iterator() {
+        return new Iterator<SerializableReference<Object>>() {
+            private final java.util.Iterator<SerializableReference<Object>> iter = idToReference.values().iterator();
+            @Override
+            public Object next() {
+                if (!iter.hasNext()) {
+                    return finished_.get_();
+                }
+                return iter.next();
+            }
+
+        };
+    }
+
+    @Override
+    public TypeDescriptor $getType$() {
+        return TypeDescriptor.klass(ConcurrentSerializationContextImpl.class);
+    }
+}
@@ -1,7 +1,12 @@
 package com.redhat.ceylon.compiler.java.runtime.serialization;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import ceylon.language.AssertionError;
 import ceylon.language.Iterator;
@@ -9,6 +14,7 @@ import ceylon.language.Null;
 import ceylon.language.finished_;
 import ceylon.language.impl.BaseIterable;
 import ceylon.language.serialization.DeserializationContext;
+import ceylon.language.serialization.RealizableReference;
 import ceylon.language.serialization.Reference;
 
 import com.redhat.ceylon.compiler.java.metadata.Ceylon;
@@ -18,7 +24,15 @@ import com.redhat.ceylon.compiler.java.runtime.model.ReifiedType;
 import com.redhat.ceylon.compiler.java.runtime.model.TypeDescriptor;
 
 /**
- * The implementation of {@link DeserializationContext}
+ * <p>The implementation of {@link DeserializationContext}.</p>
+ * 
+ * <p>By default the context holds on to every reference until it 
+ * is garbage itself. An {@linkplain #DeserializationContextImpl(boolean) 
+ * incremental} context instead lets a serialization library read a 
+ * large stream in chunks: after each chunk 
+ * {@link #reconstructAvailable()} reconstructs the instances whose 
+ * state has been read in full, and {@link #release(Object)} forgets 
+ * the ids which the rest of the stream won't mention again.</p>
  */
 @Ceylon(major=7)
 @Class
@@ -31,8 +45,30 @@ public class DeserializationContextImpl
     // the classed-ness of ids be a concern of the serialization library?
     private final Map<Object, DeserializingReference<?>> idToReference = new HashMap<>();
     
+    private final boolean incremental;
+    /** 
+     * In incremental mode, the references which have been deserialized 
+     * but not yet returned by {@link #reconstructAvailable()}
+     */
+    private ArrayList<DeserializingReference<?>> unreconstructed;
+    /** 
+     * In incremental mode, the released ids. They're kept after their 
+     * references have been reconstructed and forgotten, so that 
+     * referring to them again is an error rather than a duplicate
+     */
+    private Set<Object> released;
+    
     public DeserializationContextImpl() {
+        this(false);
+    }
+    
+    public DeserializationContextImpl(boolean incremental) {
         super(ceylon.language.Object.$TypeDescriptor$, Null.$TypeDescriptor$);
+        this.incremental = incremental;
+        if (incremental) {
+            this.unreconstructed = new ArrayList<>();
+            this.released = new HashSet<>();
+        }
     }
     
     @Override
@@ -40,6 +76,7 @@ public class DeserializationContextImpl
             TypeDescriptor reified$Instance, 
             Object id,
             @SuppressWarnings("rawtypes") ceylon.language.meta.model.Class classModel) {
+        checkNotReleased(id);
         DeserializingReference<?> ref = idToReference.get(id);
         if (ref != null) {
             if (ref.getClazz().equals(classModel)) {
@@ -63,6 +100,10 @@ public class DeserializationContextImpl
             Object id,
             @SuppressWarnings("rawtypes") ceylon.language.meta.model.MemberClass classModel,
             Reference<Outer> outerReference) {
+        checkNotReleased(id);
+        if (outerReference != null) {
+            checkNotReleased(outerReference.getId());
+        }
         DeserializingReference<?> ref = idToReference.get(id);
         if (ref != null) {
             if (ref.getClazz().equals(classModel)) {
@@ -78,7 +119,150 @@ public class DeserializationContextImpl
         idToReference.put(id, ref);
         return (Reference)ref;
     }
+    
+    private void checkNotReleased(Object id) {
+        if (incremental && released.contains(id)) {
+            throw new AssertionError("cannot obtain reference to released id: " + id);
+        }
+    }
 
+    /**
+     * Called by a reference created by this context when it's deserialized
+     */
+    void deserialized(DeserializingReference<?> reference) {
+        if (incremental) {
+            unreconstructed.add(reference);
+        }
+    }
+    
+    /**
+     * <p>Reconstructs every deserialized reference whose instance can 
+     * be reconstructed already, because it and every instance it 
+     * references, transitively, have been deserialized, and returns 
+     * them in the order in which they were deserialized. Each 
+     * reference is returned once, even if it was reconstructed by 
+     * an earlier call to {@link RealizableReference#instance()}.</p>
+     * 
+     * <p>Reconstructed references no longer hold their 
+     * {@link ceylon.language.serialization.Deconstructed}, and those 
+     * whose ids have been {@linkplain #release(Object) released} are 
+     * forgotten by this context.</p>
+     */
+    public List<RealizableReference<?>> reconstructAvailable() {
+        if (!incremental) {
+            throw new AssertionError("context is not incremental");
+        }
+        IdentityHashMap<DeserializingReference<?>, Object> blocked = blocked();
+        ArrayList<DeserializingReference<?>> reconstructed = new ArrayList<>();
+        ArrayList<DeserializingReference<?>> remaining = new ArrayList<>();
+        // if reconstruct() throws, unreconstructed is left as it 
+        // was, so that the references reconstructed so far are 
+        // still returned by the next call
+        for (DeserializingReference<?> reference : unreconstructed) {
+            if (reference.getState() != DeserializingReference.ST_INITIALIZED
+                    && !blocked.containsKey(reference)) {
+                reference.reconstruct();
+            }
+            if (reference.getState() == DeserializingReference.ST_INITIALIZED) {
+                reconstructed.add(reference);
+            } else {
+                remaining.add(reference);
+            }
+        }
+        unreconstructed = remaining;
+        for (DeserializingReference<?> reference : reconstructed) {
+            if (released.contains(reference.getId())) {
+                idToReference.remove(reference.getId());
+            }
+        }
+        return new ArrayList<RealizableReference<?>>(reconstructed);
+    }
+    
+    /**
+     * The references which reach, transitively, a reference which 
+     * has not been deserialized yet. The graph of the unreconstructed 
+     * references is walked once, recording who refers to whom, and 
+     * then the references which haven't been deserialized are 
+     * propagated back to everything which refers to them, so that 
+     * every reference and every edge is only visited twice.
+     */
+    private IdentityHashMap<DeserializingReference<?>, Object> blocked() {
+        IdentityHashMap<DeserializingReference<?>, List<DeserializingReference<?>>> referrers = new IdentityHashMap<>();
+        ArrayList<DeserializingReference<?>> stack = new ArrayList<>();
+        ArrayList<DeserializingReference<?>> stateless = new ArrayList<>();
+        for (DeserializingReference<?> reference : unreconstructed) {
+            if (reference.getState() != DeserializingReference.ST_INITIALIZED
+                    && !referrers.containsKey(reference)) {
+                referrers.put(reference, new ArrayList<DeserializingReference<?>>());
+                stack.add(reference);
+            }
+        }
+        while (!stack.isEmpty()) {
+            DeserializingReference<?> r = stack.remove(stack.size()-1);
+            if (r.getState() == DeserializingReference.ST_STATELESS) {
+                stateless.add(r);
+                continue;
+            }
+            if (r.getState() == DeserializingReference.ST_ERROR) {
+                // let reconstruct() report it
+                continue;
+            }
+            for (DeserializingReference<?> referred : r.references()) {
+                if (referred.getState() == DeserializingReference.ST_INITIALIZED) {
+                    continue;
+                }
+                List<DeserializingReference<?>> list = referrers.get(referred);
+                if (list == null) {
+                    list = new ArrayList<>();
+                    referrers.put(referred, list);
+                    stack.add(referred);
+                }
+                list.add(r);
+            }
+        }
+        IdentityHashMap<DeserializingReference<?>, Object> blocked = new IdentityHashMap<>();
+        for (DeserializingReference<?> r : stateless) {
+            blocked.put(r, null);
+        }
+        stack.addAll(stateless);
+        while (!stack.isEmpty()) {
+            DeserializingReference<?> r = stack.remove(stack.size()-1);
+            for (DeserializingReference<?> referrer : referrers.get(r)) {
+                if (!blocked.containsKey(referrer)) {
+                    blocked.put(referrer, null);
+                    stack.add(referrer);
+                }
+            }
+        }
+        return blocked;
+    }
+    
+    /**
+     * <p>Tells an incremental context that the rest of the stream 
+     * won't mention the given id, so that it can forget its 
+     * reference as soon as it has been reconstructed.</p>
+     * 
+     * <p>Obtaining a reference with a released id, or a member 
+     * reference whose outer instance has a released id, is an 
+     * error.</p>
+     */
+    public void release(Object id) {
+        if (!incremental) {
+            throw new AssertionError("context is not incremental");
+        }
+        released.add(id);
+        DeserializingReference<?> reference = idToReference.get(id);
+        if (reference != null
+                && reference.getState() == DeserializingReference.ST_INITIALIZED) {
+            idToReference.remove(id);
+        }
+    }
+    
+    /** Registers a reference made without {@link #reference} */
+    void register(DeserializingReference<?> reference) {
+        idToReference.put(reference.getId(), reference);
+    }
+    
     boolean containsId(Object id) {
         return idToReference.containsKey(id);
     }
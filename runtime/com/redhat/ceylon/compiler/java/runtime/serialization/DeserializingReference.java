@@ -73,12 +73,18 @@ public class DeserializingReference<Instance>
     private final ClassModel classModel;
     /** The state associated with this reference. May be null */
     private Deconstructed deconstructed;
+    /** 
+     * The context to tell when this reference is deserialized. 
+     * May be null 
+     */
+    private final DeserializationContextImpl context;
     
     DeserializingReference(@Ignore TypeDescriptor reified$Instance, 
             DeserializationContextImpl context, 
             Object id, 
             ClassModel classModel, Reference<?> outerReference) {
         this(reified$Instance, 
+                context,
                 id, 
                 classModel,
                 (Instance)createInstance(context, id, classModel, outerReference));
@@ -87,7 +93,15 @@ public class DeserializingReference<Instance>
     DeserializingReference(@Ignore  TypeDescriptor reified$Instance, 
             Object id, 
             @SuppressWarnings("rawtypes") ClassModel classModel, Instance instance) {
+        this(reified$Instance, null, id, classModel, instance);
+    }
+    
+    DeserializingReference(@Ignore  TypeDescriptor reified$Instance, 
+            DeserializationContextImpl context,
+            Object id, 
+            @SuppressWarnings("rawtypes") ClassModel classModel, Instance instance) {
         this.reified$Instance = reified$Instance;
+        this.context = context;
         this.id = id;
         this.classModel = classModel;
         this.state = ST_STATELESS;
@@ -165,6 +179,9 @@ public class DeserializingReference<Instance>
             throw new AssertionError("reference has already been deserialized: " + this);
         }
         this.state = ST_UNINITIALIZED;
+        if (context != null) {
+            context.deserialized(this);
+        }
         return this;
     }
     
@@ -261,16 +278,28 @@ public class DeserializingReference<Instance>
     }
     
     /**
-     * The references in the Deconstructed
+     * A {@link Deconstructed} holding array elements, which 
+     * can't be yielded by its iterator, since they have no 
+     * {@code ValueDeclaration}
+     */
+    interface Elements {
+        /** The references among the elements */
+        java.util.Iterator<? extends Reference<?>> elementReferences();
+    }
+    
+    /**
+     * The references in the Deconstructed, including the 
+     * references among its {@link Elements}
      * @return
      */
-    private Iterable<DeserializingReference<Object>> references() {
+    Iterable<DeserializingReference<Object>> references() {
         return new Iterable<DeserializingReference<Object>>() {
 
             @Override
             public java.util.Iterator<DeserializingReference<Object>> iterator() {
                 return new java.util.Iterator<DeserializingReference<Object>>() {
                     ceylon.language.Iterator it = deconstructed.iterator();
+                    java.util.Iterator<? extends Reference<?>> elements = null;
                     Object next = null;
                     
                     @Override
@@ -279,7 +308,12 @@ public class DeserializingReference<Instance>
                             Object vdValue = it.next();
                             while (true) {
                                 if (vdValue instanceof Finished) {
-                                    next = vdValue;
+                                    if (elements == null 
+                                            && deconstructed instanceof Elements) {
+                                        elements = ((Elements)deconstructed).elementReferences();
+                                    }
+                                    next = elements != null && elements.hasNext() ? 
+                                            elements.next() : vdValue;
                                     break;
                                 }
                                 Object valueOrRef = ((Tuple)vdValue).getFromFirst(1);
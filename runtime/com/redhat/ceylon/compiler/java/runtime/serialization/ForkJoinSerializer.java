@@ -0,0 +1,149 @@
+package com.redhat.ceylon.compiler.java.runtime.serialization;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import ceylon.language.serialization.SerializableReference;
+
+import com.redhat.ceylon.compiler.java.runtime.metamodel.Metamodel;
+
+/**
+ * <p>Serializes the graph reachable from a list of roots on a
+ * {@link ForkJoinPool}.</p>
+ *
+ * <p>The roots are split into partitions of at most
+ * {@link #getPartitionSize()} roots, and each partition is walked
+ * by a single task, which writes the instances it is the first to
+ * reach to an output of its own, with
+ * {@link #write(SerializableReference, Walk)}. The outputs of the
+ * partitions are then {@linkplain #merge(Object, Object) merged}
+ * in the order of the roots.</p>
+ *
+ * <p>All the tasks share a {@link ConcurrentSerializationContextImpl},
+ * so that each instance is written exactly once, by the first task
+ * to reach it, under an id which all the tasks agree on. Since
+ * which task that is depends on timing, so does the order of the
+ * instances in the merged output, and their ids.</p>
+ *
+ * @param <Output> The output of a partition
+ */
+public abstract class ForkJoinSerializer<Output> {
+
+    private static final int DEFAULT_PARTITION_SIZE = 64;
+
+    private final ForkJoinPool pool;
+    private final int partitionSize;
+    private final ConcurrentSerializationContextImpl context = new ConcurrentSerializationContextImpl();
+
+    public ForkJoinSerializer(ForkJoinPool pool, int partitionSize) {
+        if (partitionSize <= 0) {
+            throw new IllegalArgumentException("partition size must be positive: " + partitionSize);
+        }
+        this.pool = pool;
+        this.partitionSize = partitionSize;
+    }
+
+    public ForkJoinSerializer(ForkJoinPool pool) {
+        this(pool, DEFAULT_PARTITION_SIZE);
+    }
+
+    public ConcurrentSerializationContextImpl getContext() {
+        return context;
+    }
+
+    public int getPartitionSize() {
+        return partitionSize;
+    }
+
+    /**
+     * The walk of a partition: the instances still to be written,
+     * and the output they are written to. A walk is only ever used
+     * by one thread at a time.
+     */
+    public final class Walk {
+        private final ArrayDeque<SerializableReference<Object>> queue = new ArrayDeque<>();
+        private final Output output;
+
+        Walk(Output output) {
+            this.output = output;
+        }
+
+        public Output getOutput() {
+            return output;
+        }
+
+        /**
+         * Returns the id of the given instance, registering it, and
+         * queuing it to be written by this walk, if no walk has
+         * reached it yet
+         */
+        public Object reference(Object instance) {
+            SerializableReference<Object> ref = context.claim(Metamodel.getTypeDescriptor(instance), instance);
+            if (ref != null) {
+                queue.add(ref);
+                return ref.getId();
+            }
+            // registered by another walk, or earlier by this one
+            return context.findId(instance);
+        }
+
+        void run(List<?> roots) {
+            for (Object root : roots) {
+                reference(root);
+                SerializableReference<Object> ref;
+                while ((ref = queue.poll()) != null) {
+                    write(ref, this);
+                }
+            }
+        }
+    }
+
+    /** A new, empty, output for a partition */
+    protected abstract Output newOutput();
+
+    /**
+     * Writes the given instance to the output of the given walk,
+     * obtaining the ids of the instances it references with
+     * {@link Walk#reference(Object)}
+     */
+    protected abstract void write(SerializableReference<Object> reference, Walk walk);
+
+    /**
+     * The output of two consecutive partitions, which may be
+     * the first one, updated
+     */
+    protected abstract Output merge(Output first, Output second);
+
+    /**
+     * Writes the graph reachable from the given roots, and returns
+     * the merged output
+     */
+    public Output serialize(List<?> roots) {
+        return pool.invoke(new Partition(roots));
+    }
+
+    private final class Partition extends RecursiveTask<Output> {
+        private static final long serialVersionUID = 1L;
+        private final List<?> roots;
+
+        Partition(List<?> roots) {
+            this.roots = roots;
+        }
+
+        @Override
+        protected Output compute() {
+            if (roots.size() <= partitionSize) {
+                Walk walk = new Walk(newOutput());
+                walk.run(roots);
+                return walk.output;
+            }
+            int middle = roots.size() >>> 1;
+            Partition second = new Partition(roots.subList(middle, roots.size()));
+            second.fork();
+            Output first = new Partition(roots.subList(0, middle)).compute();
+            return merge(first, second.join());
+        }
+    }
+}
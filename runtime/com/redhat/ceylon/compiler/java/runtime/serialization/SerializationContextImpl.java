@@ -47,6 +47,11 @@ public class SerializationContextImpl
         return object;
     }
     
+    /** The id of the given instance, or null if it has not been registered */
+    Object findId(Object instance) {
+        return instanceToId.get(instance);
+    }
+    
     /**
      * "Create a reference to the given [[instance]] of 
      [[Class]], assigning it the given [[identifer|id]]."
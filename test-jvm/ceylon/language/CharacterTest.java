@@ -0,0 +1,27 @@
+package ceylon.language;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+public class CharacterTest {
+
+    @Test
+    public void testInstanceCache() {
+        assertSame(Character.instance('a'), Character.instance('a'));
+        assertSame(Character.instance(0), Character.instance(0));
+        assertSame(Character.instance(255), Character.instance(255));
+        assertSame(Character.instance('b'), Character.instance('a').getSuccessor());
+        assertSame(Character.instance('A'), Character.instance('a').getUppercased());
+        assertSame(Character.instance('x'), String.getFromFirst("xyz", 0));
+        assertEquals('a', Character.instance('a').intValue());
+        assertEquals(255, Character.instance(255).intValue());
+        
+        assertNotSame(Character.instance(0x1F600), Character.instance(0x1F600));
+        assertEquals(Character.instance(0x1F600), Character.instance(0x1F600));
+        assertEquals(Character.instance(256), Character.instance(256));
+        assertEquals(0x1F600, Character.instance(0x1F600).intValue());
+    }
+}
@@ -1,6 +1,8 @@
 package ceylon.language;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.fail;
 
 import org.junit.Test;
@@ -28,4 +30,21 @@ public class IntegerTest {
             // Checking that this is thrown
         }
     }
+    
+    @Test
+    public void testInstanceCache() {
+        assertSame(Integer.instance(0), Integer.instance(0));
+        assertSame(Integer.instance(-128), Integer.instance(-128));
+        assertSame(Integer.instance(1023), Integer.instance(1023));
+        assertSame(Integer.instance(1), Integer.instance(0).getSuccessor());
+        assertSame(Integer.instance(42), Integer.instance(40).plus(Integer.instance(2)));
+        assertEquals(1023L, Integer.instance(1023).longValue());
+        assertEquals(-128L, Integer.instance(-128).longValue());
+        
+        assertNotSame(Integer.instance(1024), Integer.instance(1024));
+        assertNotSame(Integer.instance(-129), Integer.instance(-129));
+        assertEquals(Integer.instance(1024), Integer.instance(1024));
+        assertEquals(Long.MAX_VALUE, Integer.instance(Long.MAX_VALUE).longValue());
+        assertEquals(Long.MIN_VALUE, Integer.instance(Long.MIN_VALUE).longValue());
+    }
 }
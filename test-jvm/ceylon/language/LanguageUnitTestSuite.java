@@ -6,15 +6,32 @@ import org.junit.runners.Suite.SuiteClasses;
 
 import com.redhat.ceylon.compiler.java.ArrayBuilderTest;
 import com.redhat.ceylon.compiler.java.TypeDescriptorTest;
+import com.redhat.ceylon.compiler.java.language.AbstractCallableTest;
+import com.redhat.ceylon.compiler.java.language.BinaryResourceTest;
+import com.redhat.ceylon.compiler.java.language.CodePointIndexTest;
+import com.redhat.ceylon.compiler.java.language.ParallelArraysTest;
+import com.redhat.ceylon.compiler.java.language.StringTokensTest;
 import com.redhat.ceylon.compiler.java.runtime.MainTest;
+import com.redhat.ceylon.compiler.java.runtime.metamodel.ClassLoaderCacheTest;
+import com.redhat.ceylon.compiler.java.runtime.metamodel.MetamodelCacheTest;
+import com.redhat.ceylon.compiler.java.runtime.model.ConcurrentWeakKeyMapTest;
 
 @RunWith(Suite.class) 
 @SuiteClasses({
     FloatTest.class,
     IntegerTest.class,
+    CharacterTest.class,
     ArrayBuilderTest.class,
     TypeDescriptorTest.class,
     PrimitiveArrayIterableTest.class,
+    ParallelArraysTest.class,
+    CodePointIndexTest.class,
+    StringTokensTest.class,
+    AbstractCallableTest.class,
+    BinaryResourceTest.class,
+    ConcurrentWeakKeyMapTest.class,
+    MetamodelCacheTest.class,
+    ClassLoaderCacheTest.class,
     MainTest.class
 })
 public class LanguageUnitTestSuite {
@@ -5,8 +5,10 @@ import org.junit.Test;
 
 import ceylon.language.Float;
 import ceylon.language.Integer;
+import ceylon.language.Sequential;
 import ceylon.language.String;
 
+import com.redhat.ceylon.compiler.java.metadata.Variance;
 import com.redhat.ceylon.compiler.java.runtime.model.TypeDescriptor;
 
 public class TypeDescriptorTest {
@@ -49,4 +51,22 @@ public class TypeDescriptorTest {
         Assert.assertFalse(TypeDescriptor.intersection(String.$TypeDescriptor$, Integer.$TypeDescriptor$).equals(
                            TypeDescriptor.intersection(String.$TypeDescriptor$, Integer.$TypeDescriptor$, Float.$TypeDescriptor$)));
     }
+
+    @Test
+    public void testInterning(){
+        Assert.assertSame(TypeDescriptor.klass(Sequential.class, Integer.$TypeDescriptor$), 
+                          TypeDescriptor.klass(Sequential.class, Integer.$TypeDescriptor$));
+        Assert.assertSame(TypeDescriptor.union(String.$TypeDescriptor$, Integer.$TypeDescriptor$), 
+                          TypeDescriptor.union(Integer.$TypeDescriptor$, String.$TypeDescriptor$));
+        Assert.assertSame(TypeDescriptor.intersection(String.$TypeDescriptor$, Integer.$TypeDescriptor$), 
+                          TypeDescriptor.intersection(Integer.$TypeDescriptor$, String.$TypeDescriptor$));
+        Assert.assertSame(TypeDescriptor.member(Integer.$TypeDescriptor$, TypeDescriptor.functionOrValue("foo")), 
+                          TypeDescriptor.member(Integer.$TypeDescriptor$, TypeDescriptor.functionOrValue("foo")));
+        // interned descriptors which are not identical are not equal
+        Assert.assertFalse(TypeDescriptor.klass(Sequential.class, Integer.$TypeDescriptor$).equals(
+                           TypeDescriptor.klass(Sequential.class, Float.$TypeDescriptor$)));
+        // but descriptors created directly are still compared structurally
+        Assert.assertEquals(TypeDescriptor.klass(Sequential.class, Integer.$TypeDescriptor$), 
+                            new TypeDescriptor.Class(Sequential.class, new Variance[0], new TypeDescriptor[]{Integer.$TypeDescriptor$}));
+    }
 }
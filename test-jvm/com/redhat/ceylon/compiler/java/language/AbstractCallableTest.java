@@ -0,0 +1,106 @@
+package com.redhat.ceylon.compiler.java.language;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import ceylon.language.Array;
+import ceylon.language.Comparison;
+import ceylon.language.Integer;
+import ceylon.language.larger_;
+import ceylon.language.smaller_;
+
+import com.redhat.ceylon.compiler.java.runtime.model.TypeDescriptor;
+
+public class AbstractCallableTest {
+
+    /** A function of Integers which may only be called with primitives */
+    static abstract class Unboxed<Return> extends AbstractCallable<Return> {
+        Unboxed(TypeDescriptor $reifiedReturn) {
+            super($reifiedReturn, TypeDescriptor.NothingType, "unboxed", (short)-1);
+        }
+        @Override
+        public Return $call$(java.lang.Object arg0) {
+            throw new AssertionError("boxed call");
+        }
+        @Override
+        public Return $call$(java.lang.Object arg0, java.lang.Object arg1) {
+            throw new AssertionError("boxed call");
+        }
+    }
+
+    private static Array<Integer> integers(long... values) {
+        Array<Integer> array = new Array<Integer>(Integer.$TypeDescriptor$, 
+                values.length, Integer.instance(0));
+        for (int i = 0; i < values.length; i++) {
+            array.set(i, Integer.instance(values[i]));
+        }
+        return array;
+    }
+
+    @Test
+    public void testDefaultsBox() {
+        AbstractCallable<Integer> twice = new AbstractCallable<Integer>(
+                Integer.$TypeDescriptor$, TypeDescriptor.NothingType, "twice", (short)-1) {
+            @Override
+            public Integer $call$(java.lang.Object arg0) {
+                return Integer.instance(((Integer)arg0).longValue() * 2);
+            }
+        };
+        Assert.assertEquals(-6L, twice.$call$long(-3L));
+    }
+
+    @Test
+    public void testArrayCount() {
+        Array<Integer> array = integers(1, 2, 3, 4, 5, 6);
+        long evens = array.count(new Unboxed<ceylon.language.Boolean>(ceylon.language.Boolean.$TypeDescriptor$) {
+            @Override
+            public boolean $call$boolean(long arg0) {
+                return arg0 % 2 == 0;
+            }
+        });
+        Assert.assertEquals(3L, evens);
+    }
+
+    @Test
+    public void testArraySortInPlace() {
+        long[] values = new long[1000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (i * 7919L) % 1009 - 500;
+        }
+        Array<Integer> array = integers(values);
+        // descending
+        array.sortInPlace(new Unboxed<Comparison>(Comparison.$TypeDescriptor$) {
+            @Override
+            public boolean $comparesPrimitives$() {
+                return true;
+            }
+            @Override
+            public Comparison $call$comparison(long x, long y) {
+                return x < y ? larger_.get_() : x > y ? smaller_.get_() : ceylon.language.equal_.get_();
+            }
+        });
+        java.util.Arrays.sort(values);
+        for (int i = 0; i < values.length; i++) {
+            Assert.assertEquals(values[values.length - 1 - i], array.getFromFirst(i).longValue());
+        }
+    }
+
+    @Test
+    public void testArraySortInPlaceBoxed() {
+        Array<Integer> array = integers(3, -1, 2, 0);
+        // doesn't compare primitives, so is only called boxed
+        array.sortInPlace(new AbstractCallable<Comparison>(
+                Comparison.$TypeDescriptor$, TypeDescriptor.NothingType, "compare", (short)-1) {
+            @Override
+            public Comparison $call$(java.lang.Object arg0, java.lang.Object arg1) {
+                return ((Integer)arg0).compare((Integer)arg1);
+            }
+            @Override
+            public Comparison $call$comparison(long x, long y) {
+                throw new AssertionError("primitive call");
+            }
+        });
+        Assert.assertEquals(-1L, array.getFromFirst(0).longValue());
+        Assert.assertEquals(3L, array.getFromFirst(3).longValue());
+    }
+}
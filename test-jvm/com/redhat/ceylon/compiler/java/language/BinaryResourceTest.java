@@ -0,0 +1,146 @@
+package com.redhat.ceylon.compiler.java.language;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class BinaryResourceTest {
+
+    private static final String TEXT = "x\u00e9\uD83D\uDE00\r\nline";
+    private static final byte[] CONTENT = TEXT.getBytes(StandardCharsets.UTF_8);
+
+    private File dir;
+
+    @Before
+    public void createDir() throws IOException {
+        dir = File.createTempFile("resources", "");
+        Assert.assertTrue(dir.delete());
+        Assert.assertTrue(dir.mkdir());
+    }
+
+    @After
+    public void deleteDir() {
+        for (File file : dir.listFiles()) {
+            file.delete();
+        }
+        dir.delete();
+    }
+
+    private static byte[] bytes(ByteBuffer buffer) {
+        Assert.assertTrue(buffer.isReadOnly());
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    private static byte[] bytes(InputStream stream) throws IOException {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            byte[] buf = new byte[7];
+            int read;
+            while ((read = stream.read(buf)) >= 0) {
+                bytes.write(buf, 0, read);
+            }
+            return bytes.toByteArray();
+        } finally {
+            stream.close();
+        }
+    }
+
+    private static String chars(Reader reader) throws IOException {
+        return Resources.readFully(reader, -1);
+    }
+
+    private static void check(BinaryResource resource, byte[] content) throws IOException {
+        String text = new String(content, "UTF-8");
+        Assert.assertArrayEquals(content, bytes(resource.byteContent()));
+        // every call gets a buffer of its own
+        Assert.assertArrayEquals(content, bytes(resource.byteContent()));
+        Assert.assertArrayEquals(content, bytes(resource.openStream()));
+        Assert.assertEquals(text, chars(resource.openReader("UTF-8")));
+        Assert.assertEquals(text, ((ceylon.language.Resource) resource).textContent("UTF-8"));
+    }
+
+    private File file(String name, byte[] content) throws IOException {
+        File file = new File(dir, name);
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(content);
+        }
+        return file;
+    }
+
+    private File zip(String name, String entry, byte[] content) throws IOException {
+        File file = new File(dir, name);
+        try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(file))) {
+            out.putNextEntry(new ZipEntry(entry));
+            out.write(content);
+            out.closeEntry();
+        }
+        return file;
+    }
+
+    @Test
+    public void testFileResource() throws IOException {
+        check(new FileResource(file("text.txt", CONTENT)), CONTENT);
+        check(new FileResource(file("empty.txt", new byte[0])), new byte[0]);
+    }
+
+    @Test
+    public void testZipResource() throws IOException {
+        File zip = zip("text.car", "dir/text.txt", CONTENT);
+        ZipResource resource = new ZipResource(zip, "dir/text.txt");
+        Assert.assertEquals(CONTENT.length, resource.getSize());
+        check(resource, CONTENT);
+    }
+
+    @Test(expected=IOException.class)
+    public void testZipResourceMissing() throws IOException {
+        new ZipResource(zip("text.car", "text.txt", CONTENT), "missing.txt").openStream();
+    }
+
+    /**
+     * ZipFile always reports the size recorded in the central
+     * directory, so the buffer growing used for entries with no
+     * recorded size is tested on the stream of an entry directly
+     */
+    @Test
+    public void testZipResourceUnknownSize() throws IOException {
+        byte[] large = new byte[100000];
+        for (int i = 0; i < large.length; i++) {
+            large[i] = (byte) i;
+        }
+        ZipResource resource = new ZipResource(zip("large.car", "large.bin", large), "large.bin");
+        try (ReadableByteChannel channel = Channels.newChannel(resource.openStream())) {
+            Assert.assertArrayEquals(large, bytes(Resources.readFully(channel, -1)));
+        }
+        Assert.assertArrayEquals(large, bytes(resource.byteContent()));
+        Assert.assertArrayEquals(new byte[0], bytes(
+                Resources.readFully(Channels.newChannel(new ByteArrayInputStream(new byte[0])), -1)));
+    }
+
+    @Test
+    public void testByteArrayResource() throws IOException {
+        check(new ByteArrayResource(CONTENT, URI.create("file:/text.txt")), CONTENT);
+        // the contents are shared with the buffer, but it can't change them
+        byte[] content = CONTENT.clone();
+        ByteBuffer buffer = new ByteArrayResource(content, URI.create("file:/text.txt")).byteContent();
+        content[0] = 'y';
+        Assert.assertEquals('y', buffer.get(0));
+    }
+}
@@ -0,0 +1,66 @@
+package com.redhat.ceylon.compiler.java.language;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CodePointIndexTest {
+
+    private static void check(java.lang.String value) {
+        int count = value.codePointCount(0, value.length());
+        Assert.assertEquals(count, CodePointIndex.count(value));
+        for (int i = 0; i <= count; i++) {
+            Assert.assertEquals(value.offsetByCodePoints(0, i), CodePointIndex.offset(value, i));
+        }
+        for (int i = 0; i <= value.length(); i++) {
+            Assert.assertEquals(value.codePointCount(0, i), CodePointIndex.index(value, i));
+        }
+        try {
+            CodePointIndex.offset(value, count+1);
+            Assert.fail();
+        } catch (IndexOutOfBoundsException e) {
+            // expected
+        }
+    }
+
+    private static java.lang.String random(Random random, int length, int surrogatePercent) {
+        StringBuilder sb = new StringBuilder();
+        while (sb.length() < length) {
+            int percent = random.nextInt(100);
+            if (percent < surrogatePercent) {
+                sb.appendCodePoint(0x1F600 + random.nextInt(80));
+            }
+            else if (percent < surrogatePercent + 2) {
+                // unpaired surrogate
+                sb.append((char) (0xD800 + random.nextInt(0x800)));
+            }
+            else {
+                sb.append((char) random.nextInt(0xD000));
+            }
+        }
+        return sb.toString();
+    }
+
+    @Test
+    public void testAscii() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            sb.append((char) ('a' + i % 26));
+        }
+        check(sb.toString());
+        check("short");
+        check("");
+    }
+
+    @Test
+    public void testSurrogates() {
+        Random random = new Random(42);
+        for (int percent : new int[] { 0, 1, 10, 50, 98 }) {
+            for (int length : new int[] { 10, 63, 64, 65, 500 }) {
+                check(random(random, length, percent));
+            }
+        }
+        check("\uD83D\uDE00" + random(random, 100, 0) + "\uD83D");
+    }
+}
@@ -0,0 +1,91 @@
+package com.redhat.ceylon.compiler.java.language;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ParallelArraysTest {
+
+    // big enough to be split across several tasks
+    private static final int SIZE = ParallelArrays.DEFAULT_THRESHOLD * 3 + 17;
+
+    @Test
+    public void testSortLongs() {
+        Random random = new Random(42);
+        long[] array = new long[SIZE];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = random.nextLong();
+        }
+        long[] expected = array.clone();
+        Arrays.sort(expected);
+        ParallelArrays.sort(array);
+        Assert.assertArrayEquals(expected, array);
+    }
+
+    @Test
+    public void testSortDoubles() {
+        Random random = new Random(42);
+        double[] array = new double[SIZE];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = random.nextGaussian();
+        }
+        array[7] = -0.0;
+        array[8] = 0.0;
+        array[9] = Double.NaN;
+        array[10] = Double.NEGATIVE_INFINITY;
+        double[] expected = array.clone();
+        Arrays.sort(expected);
+        ParallelArrays.sort(array);
+        Assert.assertArrayEquals(expected, array, 0.0);
+    }
+
+    @Test
+    public void testSortInts() {
+        Random random = new Random(42);
+        int[] array = new int[SIZE];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = random.nextInt(0x10FFFF);
+        }
+        int[] expected = array.clone();
+        Arrays.sort(expected);
+        ParallelArrays.sort(array);
+        Assert.assertArrayEquals(expected, array);
+    }
+
+    @Test
+    public void testSortStrings() {
+        Random random = new Random(42);
+        String[] array = new String[SIZE];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = Integer.toString(random.nextInt(), 36);
+        }
+        String[] expected = array.clone();
+        Arrays.sort(expected);
+        ParallelArrays.sort(array);
+        Assert.assertArrayEquals(expected, array);
+    }
+
+    @Test
+    public void testContains() {
+        long[] longs = new long[SIZE];
+        double[] doubles = new double[SIZE];
+        int[] ints = new int[SIZE];
+        String[] strings = new String[SIZE];
+        Arrays.fill(strings, "");
+        longs[SIZE-1] = 1L;
+        doubles[SIZE-1] = 1.0;
+        ints[SIZE-1] = 1;
+        strings[SIZE-1] = "x";
+        Assert.assertTrue(ParallelArrays.contains(longs, 1L));
+        Assert.assertFalse(ParallelArrays.contains(longs, 2L));
+        Assert.assertTrue(ParallelArrays.contains(doubles, 1.0));
+        Assert.assertFalse(ParallelArrays.contains(doubles, Double.NaN));
+        Assert.assertTrue(ParallelArrays.contains(ints, 1));
+        Assert.assertFalse(ParallelArrays.contains(ints, 2));
+        Assert.assertTrue(ParallelArrays.contains(strings, "x"));
+        Assert.assertFalse(ParallelArrays.contains(strings, "y"));
+        Assert.assertFalse(ParallelArrays.contains(new byte[0], (byte)0));
+    }
+}
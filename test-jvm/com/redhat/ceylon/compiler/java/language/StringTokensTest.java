@@ -0,0 +1,108 @@
+package com.redhat.ceylon.compiler.java.language;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import ceylon.language.Boolean;
+import ceylon.language.Callable;
+import ceylon.language.Character;
+import ceylon.language.Empty;
+import ceylon.language.Iterator;
+import ceylon.language.Tuple;
+import ceylon.language.finished_;
+
+import com.redhat.ceylon.compiler.java.runtime.model.TypeDescriptor;
+
+public class StringTokensTest {
+
+    private static final String[] STRINGS = {
+        "", " ", "a", " a", "a ", "  a  b\tc\n", "a,b;;c,", ",,a",
+        "x\uD83D\uDE00y\uD83D\uDE00", "\uD83D\uDE00\uD83D\uDE00"
+    };
+
+    /** Hides the separator from StringTokens, which must then box */
+    private static Callable<Boolean> opaque(final Callable<? extends Boolean> separator) {
+        return new AbstractCallable<Boolean>(Boolean.$TypeDescriptor$,
+                TypeDescriptor.klass(Tuple.class, Character.$TypeDescriptor$,
+                        Character.$TypeDescriptor$, Empty.$TypeDescriptor$),
+                "opaque", (short)-1) {
+            @Override
+            public Boolean $call$(java.lang.Object ch) {
+                return separator.$call$(ch);
+            }
+        };
+    }
+
+    private static List<String> tokens(StringTokens tokens) {
+        List<String> ret = new ArrayList<String>();
+        Iterator<? extends ceylon.language.String> it = tokens.iterator();
+        java.lang.Object token;
+        while ((token = it.next()) != finished_.get_()) {
+            ret.add(token.toString());
+        }
+        return ret;
+    }
+
+    private static List<String> offsets(StringTokens tokens) {
+        List<String> ret = new ArrayList<String>();
+        StringTokens.Offsets offsets = tokens.offsets();
+        while (offsets.next()) {
+            ret.add(offsets.getString().substring(offsets.getStart(), offsets.getEnd()));
+        }
+        return ret;
+    }
+
+    private static void check(StringTokens.Separator separator) {
+        for (String string : STRINGS) {
+            for (int flags = 0; flags < 4; flags++) {
+                boolean keep = (flags & 1) != 0;
+                boolean group = (flags & 2) != 0;
+                List<String> expected = tokens(new StringTokens(string,
+                        opaque(separator), keep, group));
+                StringTokens tokens = new StringTokens(string, separator, keep, group);
+                Assert.assertEquals(expected, tokens(tokens));
+                Assert.assertEquals(expected, offsets(tokens));
+            }
+        }
+    }
+
+    @Test
+    public void testWhitespace() {
+        check(StringTokens.WHITESPACE);
+    }
+
+    @Test
+    public void testSeparator() {
+        check(StringTokens.separator(','));
+        check(StringTokens.separator(0x1F600));
+    }
+
+    @Test
+    public void testSeparators() {
+        StringTokens.Separator separators = StringTokens.separators(",;\uD83D\uDE00\u00e9");
+        check(separators);
+        Assert.assertTrue(separators.$call$(Character.instance(';')).booleanValue());
+        Assert.assertTrue(separators.$call$(Character.instance(0x1F600)).booleanValue());
+        Assert.assertTrue(separators.$call$(Character.instance(0xe9)).booleanValue());
+        Assert.assertFalse(separators.$call$(Character.instance('a')).booleanValue());
+        Assert.assertFalse(separators.$call$(Character.instance('{')).booleanValue());
+    }
+
+    @Test
+    public void testSeparatorSet() {
+        // a ceylon String is a {Character*}
+        StringTokens.Separator separators = StringTokens.separators(
+                ceylon.language.String.instance(",;\uD83D\uDE00\u00e9"));
+        check(separators);
+        Assert.assertTrue(separators.$call$(Character.instance(0x1F600)).booleanValue());
+        Assert.assertFalse(separators.$call$(Character.instance('a')).booleanValue());
+        Assert.assertSame(StringTokens.class, ceylon.language.String.split("a;b",
+                separators, true, true).getClass());
+        Assert.assertEquals(Arrays.asList("a", "b", "c"), tokens((StringTokens)
+                ceylon.language.String.split("a;b,,c", separators, true, true)));
+    }
+}
@@ -172,6 +172,34 @@ public class MainTest {
         
     }
 
+    @Test
+    public void testIndexCache() throws IOException, ModuleNotFoundException{
+        File jar = jar("module.xml", "META-INF/jbossmodules/foo/foo/1");
+        File cache = File.createTempFile("ceylonlang-testmain-", ".index");
+        cache.delete();
+        try{
+            // the first run creates the cache, the second one uses it
+            for(int i=0;i<2;i++){
+                ArrayList<File> jars = new ArrayList<File>(1);
+                jars.add(jar);
+                ClassPath classPath = new Main.ClassPath(jars, cache);
+                Module module = classPath.loadModule("foo.foo", "1");
+                assertEquals("foo.foo", module.name());
+                assertEquals(3, module.dependencies.size());
+                assertTrue(cache.isFile());
+                try{
+                    classPath.loadModule("bar", "1");
+                    fail();
+                }catch(ModuleNotFoundException x){
+                    // expected
+                }
+            }
+        }finally{
+            jar.delete();
+            cache.delete();
+        }
+    }
+
     @Test
     public void testJdkDependencies() throws ModuleNotFoundException {
         ArrayList<File> jars = new ArrayList<File>(1);
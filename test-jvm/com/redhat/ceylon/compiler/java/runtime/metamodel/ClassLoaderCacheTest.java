@@ -0,0 +1,176 @@
+package com.redhat.ceylon.compiler.java.runtime.metamodel;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+import com.redhat.ceylon.cmr.api.ArtifactResult;
+import com.redhat.ceylon.cmr.api.ArtifactResultType;
+import com.redhat.ceylon.cmr.api.ImportType;
+import com.redhat.ceylon.cmr.api.PathFilter;
+import com.redhat.ceylon.cmr.api.Repository;
+import com.redhat.ceylon.cmr.api.RepositoryException;
+import com.redhat.ceylon.cmr.api.VisibilityType;
+import com.redhat.ceylon.cmr.impl.NodeUtils;
+import com.redhat.ceylon.compiler.java.runtime.MainTest;
+import com.redhat.ceylon.compiler.java.runtime.model.RuntimeModuleManager;
+import com.redhat.ceylon.compiler.typechecker.model.Declaration;
+import com.redhat.ceylon.compiler.typechecker.model.Module;
+import com.redhat.ceylon.compiler.typechecker.model.Package;
+
+public class ClassLoaderCacheTest {
+
+    @Test
+    public void testNeverEvictsLiveEntries() {
+        ClassLoaderCache<Integer, Object> cache = new ClassLoaderCache<Integer, Object>("test");
+        ClassLoader loader = new URLClassLoader(new URL[0]);
+        Object[] values = new Object[2 * MetamodelCache.DEFAULT_MAXIMUM_SIZE];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = new Object();
+            cache.put(i, values[i], i % 2 == 0 ? loader : null);
+        }
+        // every value is still the same instance
+        for (int i = 0; i < values.length; i++) {
+            Assert.assertSame(values[i], cache.get(i));
+        }
+        Assert.assertEquals(values.length, cache.getSize());
+        Assert.assertEquals(0, cache.getEvictions());
+        Assert.assertEquals(values.length, cache.getHits());
+        Assert.assertEquals(values.length, cache.getMisses());
+        cache.clear();
+        Assert.assertEquals(0, cache.getSize());
+        Assert.assertNull(cache.get(0));
+    }
+
+    @Test
+    public void testEvictsWithClassLoader() throws InterruptedException {
+        ClassLoaderCache<String, Object> cache = new ClassLoaderCache<String, Object>("test");
+        cache.put("kept", new Object(), null);
+        cache.put("a", new Object(), new URLClassLoader(new URL[0]));
+        cache.put("b", new Object(), new URLClassLoader(new URL[0]));
+        // the loaders are unreachable, so each put() may purge them
+        for (int i = 0; i < 50 && cache.getSize() > 1; i++) {
+            System.gc();
+            Thread.sleep(10);
+            cache.put("kept", new Object(), null);
+        }
+        Assume.assumeTrue("class loaders were not collected", cache.getSize() == 1);
+        Assert.assertNull(cache.get("a"));
+        Assert.assertNull(cache.get("b"));
+        Assert.assertNotNull(cache.get("kept"));
+        Assert.assertEquals(2, cache.getEvictions());
+    }
+
+    private static ArtifactResult artifact(final String name, final String version, final File file) {
+        return new ArtifactResult(){
+            @Override
+            public String name() {
+                return name;
+            }
+            @Override
+            public String version() {
+                return version;
+            }
+            @Override
+            public ImportType importType() {
+                return null;
+            }
+            @Override
+            public ArtifactResultType type() {
+                return null;
+            }
+            @Override
+            public VisibilityType visibilityType() {
+                return null;
+            }
+            @Override
+            public File artifact() throws RepositoryException {
+                return file;
+            }
+            @Override
+            public List<ArtifactResult> dependencies() throws RepositoryException {
+                return Collections.emptyList();
+            }
+            @Override
+            public String repositoryDisplayString() {
+                return NodeUtils.UNKNOWN_REPOSITORY;
+            }
+            @Override
+            public PathFilter filter() {
+                return null;
+            }
+            @Override
+            public Repository repository() {
+                return null;
+            }
+        };
+    }
+
+    /** Loads foo.provider, whose declarations are cached until it is unloaded */
+    private static WeakReference<ClassLoader> loadProvider(File jar,
+            ClassLoaderCache<Object, Object> declarations,
+            ClassLoaderCache<Object, Object> modules) throws IOException {
+        ClassLoader loader = new URLClassLoader(new URL[]{ jar.toURI().toURL() });
+        Assert.assertTrue(Metamodel.loadModule("foo.provider", "1", artifact("foo.provider", "1", jar), loader));
+        RuntimeModuleManager moduleManager = Metamodel.getModuleManager();
+        Module module = moduleManager.findLoadedModule("foo.provider", "1");
+        Package pkg = module.getPackage("foo.provider");
+        Declaration provider = pkg.getDirectMember("Provider", null, false);
+        Assert.assertNotNull(provider);
+        // like the runtime model, the values reference the model
+        // and through it the classes of the module
+        declarations.put(provider, new Object[]{ provider }, loader);
+        modules.put(module, new Object[]{ module }, loader);
+        Assert.assertEquals(2, declarations.getSize());
+        Assert.assertNotNull(declarations.get(provider));
+        Assert.assertNotNull(modules.get(module));
+
+        Assert.assertTrue(Metamodel.unloadModule(module));
+        Assert.assertFalse(Metamodel.unloadModule(module));
+        Assert.assertNull(moduleManager.getModelLoader().getClassLoader(module));
+        Assert.assertNull(moduleManager.findLoadedModule("foo.provider", "1"));
+        return new WeakReference<ClassLoader>(loader);
+    }
+
+    @Test
+    public void testEvictsUnloadedModule() throws IOException, InterruptedException {
+        File jar = MainTest.compileAndJar("foo.provider", "Provider");
+        ClassLoaderCache<Object, Object> declarations = new ClassLoaderCache<Object, Object>("declarations");
+        ClassLoaderCache<Object, Object> modules = new ClassLoaderCache<Object, Object>("modules");
+        Metamodel.resetModuleManager();
+        try {
+            Object kept = new Object();
+            declarations.put("kept", kept, null);
+            WeakReference<ClassLoader> loader = loadProvider(jar, declarations, modules);
+            // the model loader caches the mirrors of the classes it
+            // has loaded, so only release them with it
+            Metamodel.resetModuleManager();
+            for (int i = 0; i < 100 && loader.get() != null; i++) {
+                System.gc();
+                Thread.sleep(10);
+            }
+            Assert.assertNull("class loader was not collected", loader.get());
+            // it may take a little longer to be enqueued
+            for (int i = 0; i < 100 && (declarations.getEvictions() == 0 || modules.getEvictions() == 0); i++) {
+                Thread.sleep(10);
+                declarations.put("kept", kept, null);
+                modules.put("kept", kept, null);
+            }
+            Assert.assertEquals(1, declarations.getEvictions());
+            Assert.assertEquals(1, modules.getEvictions());
+            Assert.assertEquals(1, declarations.getSize());
+            Assert.assertSame(kept, declarations.get("kept"));
+        } finally {
+            Metamodel.resetModuleManager();
+            jar.delete();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.redhat.ceylon.compiler.java.runtime.metamodel;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MetamodelCacheTest {
+
+    @Test
+    public void testStatistics() {
+        MetamodelCache<String, Integer> cache = new MetamodelCache<String, Integer>("test", 10);
+        Assert.assertNull(cache.get("a"));
+        cache.put("a", 1);
+        Assert.assertEquals(Integer.valueOf(1), cache.get("a"));
+        Assert.assertEquals(Integer.valueOf(1), cache.get("a"));
+        Assert.assertEquals(2, cache.getHits());
+        Assert.assertEquals(1, cache.getMisses());
+        Assert.assertEquals(0, cache.getEvictions());
+        Assert.assertEquals(1, cache.getSize());
+        cache.clear();
+        Assert.assertEquals(0, cache.getSize());
+        Assert.assertEquals(0, cache.getHits());
+    }
+
+    @Test
+    public void testEviction() {
+        MetamodelCache<Integer, Integer> cache = new MetamodelCache<Integer, Integer>("test", 10);
+        for (int i = 0; i < 10; i++) {
+            cache.put(i, i);
+        }
+        // make the first entry the most recently used
+        Assert.assertEquals(Integer.valueOf(0), cache.get(0));
+        cache.put(10, 10);
+        Assert.assertTrue(cache.getSize() <= 10);
+        Assert.assertTrue(cache.getEvictions() > 0);
+        Assert.assertEquals(Integer.valueOf(0), cache.get(0));
+        Assert.assertNull(cache.get(1));
+        Assert.assertEquals(Integer.valueOf(10), cache.get(10));
+    }
+}
@@ -0,0 +1,67 @@
+package com.redhat.ceylon.compiler.java.runtime.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ConcurrentWeakKeyMapTest {
+
+    @Test
+    public void testEqualKeys() {
+        ConcurrentWeakKeyMap<String, Integer> map = new ConcurrentWeakKeyMap<String, Integer>();
+        String key = new String("a");
+        Assert.assertNull(map.get(key));
+        Assert.assertNull(map.put(key, 1));
+        // lookup with an equal but not identical key
+        Assert.assertEquals(Integer.valueOf(1), map.get(new String("a")));
+        Assert.assertEquals(Integer.valueOf(1), map.putIfAbsent(new String("a"), 2));
+        Assert.assertEquals(Integer.valueOf(1), map.put(new String("a"), 3));
+        Assert.assertEquals(Integer.valueOf(3), map.get(key));
+        Assert.assertEquals(1, map.size());
+        Assert.assertEquals(Integer.valueOf(3), map.remove(new String("a")));
+        Assert.assertNull(map.get(key));
+        map.put(key, 4);
+        map.clear();
+        Assert.assertEquals(0, map.size());
+    }
+
+    @Test
+    public void testConcurrentPutIfAbsent() throws Exception {
+        final ConcurrentWeakKeyMap<String, Object> map = new ConcurrentWeakKeyMap<String, Object>();
+        final String[] keys = new String[100];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = "key" + i;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Object[]>> results = new ArrayList<Future<Object[]>>();
+            for (int t = 0; t < 8; t++) {
+                results.add(executor.submit(new Callable<Object[]>() {
+                    @Override
+                    public Object[] call() {
+                        Object[] seen = new Object[keys.length];
+                        for (int i = 0; i < keys.length; i++) {
+                            Object value = new Object();
+                            Object existing = map.putIfAbsent(keys[i], value);
+                            seen[i] = existing == null ? value : existing;
+                        }
+                        return seen;
+                    }
+                }));
+            }
+            // every thread must agree on the value for every key
+            Object[] first = results.get(0).get();
+            for (Future<Object[]> result : results) {
+                Assert.assertArrayEquals(first, result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.redhat.ceylon.compiler.java.runtime.serialization;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.channels.Channels;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import ceylon.language.Array;
+import ceylon.language.Boolean;
+import ceylon.language.Byte;
+import ceylon.language.Character;
+import ceylon.language.Float;
+import ceylon.language.Integer;
+
+import com.redhat.ceylon.compiler.java.runtime.model.TypeDescriptor;
+
+public class BinarySerializerTest {
+
+    private static Object[] roundTrip(Object... roots) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        BinarySerializer serializer = new BinarySerializer(Channels.newChannel(bytes));
+        for (Object root : roots) {
+            serializer.writeObject(root);
+        }
+        BinaryDeserializer deserializer = new BinaryDeserializer(
+                Channels.newChannel(new ByteArrayInputStream(bytes.toByteArray())));
+        Object[] ret = new Object[roots.length];
+        for (int i = 0; i < roots.length; i++) {
+            ret[i] = deserializer.readObject();
+        }
+        return ret;
+    }
+
+    @Test
+    public void testValues() throws IOException {
+        StringBuilder large = new StringBuilder();
+        for (int i = 0; i < 100000; i++) {
+            large.append((char)('a' + i % 26));
+        }
+        Object[] values = {
+            null,
+            Integer.instance(0), Integer.instance(-1),
+            Integer.instance(Long.MAX_VALUE), Integer.instance(Long.MIN_VALUE),
+            Float.instance(1.5), Float.instance(Double.NEGATIVE_INFINITY),
+            Byte.instance((byte)-128),
+            Boolean.instance(true), Boolean.instance(false),
+            Character.instance(0x1F600),
+            ceylon.language.String.instance(""),
+            ceylon.language.String.instance("x\u00e9\uD83D\uDE00"),
+            ceylon.language.String.instance(large.toString())
+        };
+        Assert.assertArrayEquals(values, roundTrip(values));
+    }
+
+    @SafeVarargs
+    private static <Element> Array<Element> array(TypeDescriptor type, Element... elements) {
+        Array<Element> array = new Array<Element>(type, elements.length, elements[0]);
+        for (int i = 0; i < elements.length; i++) {
+            array.set(i, elements[i]);
+        }
+        return array;
+    }
+
+    @Test
+    public void testPrimitiveArrays() throws IOException {
+        Object[] arrays = {
+            array(Integer.$TypeDescriptor$, 
+                    Integer.instance(0), Integer.instance(Long.MIN_VALUE), Integer.instance(42)),
+            array(Float.$TypeDescriptor$, 
+                    Float.instance(-0.5), Float.instance(Double.NaN), Float.instance(1e300)),
+            array(Byte.$TypeDescriptor$, 
+                    Byte.instance((byte)0), Byte.instance((byte)-1), Byte.instance((byte)127)),
+            array(Boolean.$TypeDescriptor$, 
+                    Boolean.instance(true), Boolean.instance(false), Boolean.instance(true)),
+            array(Character.$TypeDescriptor$, 
+                    Character.instance('a'), Character.instance(0x1F600), Character.instance(0))
+        };
+        Object[] result = roundTrip(arrays);
+        for (int i = 0; i < arrays.length; i++) {
+            Assert.assertNotSame(arrays[i], result[i]);
+            Assert.assertEquals(arrays[i], result[i]);
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testSharedElement() throws IOException {
+        Array<Integer> shared = array(Integer.$TypeDescriptor$, 
+                Integer.instance(1), Integer.instance(2));
+        Array<Object> array = array(ceylon.language.Object.$TypeDescriptor$, 
+                shared, ceylon.language.String.instance("x"), shared);
+        Array<Object> result = (Array<Object>)roundTrip(array)[0];
+        Assert.assertEquals(array, result);
+        Assert.assertSame(result.getFromFirst(0), result.getFromFirst(2));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testCycle() throws IOException {
+        Array<Object> array = array(ceylon.language.Object.$TypeDescriptor$, 
+                ceylon.language.String.instance("x"), Integer.instance(1));
+        array.set(1, array);
+        Array<Object> result = (Array<Object>)roundTrip(array)[0];
+        Assert.assertEquals(ceylon.language.String.instance("x"), result.getFromFirst(0));
+        Assert.assertSame(result, result.getFromFirst(1));
+    }
+
+    /**
+     * Graphs written to the same stream share the type and 
+     * declaration dictionaries, but not their instances
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testTwoGraphs() throws IOException {
+        Array<Integer> shared = array(Integer.$TypeDescriptor$, 
+                Integer.instance(1), Integer.instance(2));
+        Array<Object> first = array(ceylon.language.Object.$TypeDescriptor$, 
+                shared, shared);
+        Array<Object> second = array(ceylon.language.Object.$TypeDescriptor$, 
+                shared, Float.instance(2.5));
+        Object[] result = roundTrip(first, second);
+        Array<Object> firstResult = (Array<Object>)result[0];
+        Array<Object> secondResult = (Array<Object>)result[1];
+        Assert.assertEquals(first, firstResult);
+        Assert.assertEquals(second, secondResult);
+        Assert.assertSame(firstResult.getFromFirst(0), firstResult.getFromFirst(1));
+        Assert.assertNotSame(firstResult.getFromFirst(0), secondResult.getFromFirst(0));
+    }
+
+    @Test(expected=StreamCorruptedException.class)
+    public void testNotAStream() throws IOException {
+        new BinaryDeserializer(Channels.newChannel(
+                new ByteArrayInputStream(new byte[]{ 1, 2, 3, 4, 5 }))).readObject();
+    }
+
+    @Test(expected=EOFException.class)
+    public void testTruncated() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        new BinarySerializer(Channels.newChannel(bytes))
+                .writeObject(ceylon.language.String.instance("truncated"));
+        byte[] truncated = new byte[bytes.size() - 3];
+        System.arraycopy(bytes.toByteArray(), 0, truncated, 0, truncated.length);
+        new BinaryDeserializer(Channels.newChannel(
+                new ByteArrayInputStream(truncated))).readObject();
+    }
+}
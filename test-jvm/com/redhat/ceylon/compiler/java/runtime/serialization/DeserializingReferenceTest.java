@@ -1,11 +1,15 @@
 package com.redhat.ceylon.compiler.java.runtime.serialization;
 
+import java.util.Arrays;
+
 import org.junit.Test;
 import org.junit.Assert;
 
 
+import com.redhat.ceylon.compiler.java.Util;
 import com.redhat.ceylon.compiler.java.runtime.model.TypeDescriptor;
 
+import ceylon.language.Array;
 import ceylon.language.AssertionError;
 import ceylon.language.Boolean;
 import ceylon.language.Callable;
@@ -26,6 +30,7 @@ import ceylon.language.meta.declaration.ValueDeclaration;
 import ceylon.language.meta.model.ClassModel;
 import ceylon.language.meta.model.Type;
 import ceylon.language.serialization.Deconstructed;
+import ceylon.language.serialization.Deconstructed$impl;
 import ceylon.language.serialization.Deconstructor;
 import ceylon.language.serialization.Reference;
 
@@ -82,6 +87,16 @@ class DeconstructedGineaPig extends BaseIterable<Sequence<? extends Object>, Obj
         return null;
     }
 
+    @Override
+    public <Instance> void getElements(TypeDescriptor arg0, long arg1, Array<Instance> arg2) {
+        // TODO Auto-generated method stub
+    }
+
+    @Override
+    public Deconstructed$impl $ceylon$language$serialization$Deconstructed$impl() {
+        throw Util.makeUnimplementedMixinAccessException();
+    }
+
     @Override
     public Type<? extends Object> getTypeArgument(TypeParameter arg0) {
         return typeArgument;
@@ -178,6 +193,98 @@ public class DeserializingReferenceTest {
         }
     }
     
+    /** a -> b -> a, c -> d */
+    @Test
+    public void testReconstructAvailable() {
+        @SuppressWarnings("rawtypes")
+        ClassModel cm = null;
+        DeserializationContextImpl dc = new DeserializationContextImpl(true);
+        DeserializingReference<GuineaPig> a = new DeserializingReference<GuineaPig>(null, dc, "a", cm, new GuineaPig("A"));
+        DeserializingReference<GuineaPig> b = new DeserializingReference<GuineaPig>(null, dc, "b", cm, new GuineaPig("B"));
+        DeserializingReference<GuineaPig> c = new DeserializingReference<GuineaPig>(null, dc, "c", cm, new GuineaPig("C"));
+        DeserializingReference<GuineaPig> d = new DeserializingReference<GuineaPig>(null, dc, "d", cm, new GuineaPig("D"));
+        a.deserialize(new DeconstructedGineaPig(null, b));
+        c.deserialize(new DeconstructedGineaPig(null, d));
+        Assert.assertTrue(dc.reconstructAvailable().isEmpty());
+        Assert.assertEquals(1, a.getState());
+        
+        b.deserialize(new DeconstructedGineaPig(null, a));
+        Assert.assertEquals(Arrays.asList(a, b), dc.reconstructAvailable());
+        Assert.assertEquals(3, a.getState());
+        Assert.assertEquals(3, b.getState());
+        Assert.assertEquals(1, c.getState());
+        
+        d.deserialize(new DeconstructedGineaPig(null, null));
+        Assert.assertEquals(Arrays.asList(c, d), dc.reconstructAvailable());
+        Assert.assertTrue(dc.reconstructAvailable().isEmpty());
+    }
+    
+    /** r0 -> r1 -> ... -> rN, where rN is deserialized last */
+    @Test(timeout=10000)
+    public void testReconstructAvailableChain() {
+        @SuppressWarnings("rawtypes")
+        ClassModel cm = null;
+        DeserializationContextImpl dc = new DeserializationContextImpl(true);
+        int n = 10000;
+        @SuppressWarnings("unchecked")
+        DeserializingReference<GuineaPig>[] refs = new DeserializingReference[n+1];
+        for (int i = 0; i <= n; i++) {
+            refs[i] = new DeserializingReference<GuineaPig>(null, dc, "r"+i, cm, new GuineaPig("R"+i));
+        }
+        for (int i = 0; i < n; i++) {
+            refs[i].deserialize(new DeconstructedGineaPig(null, refs[i+1]));
+            // every call walks the unreconstructed chain only once
+            if (i % 1000 == 999) {
+                Assert.assertTrue(dc.reconstructAvailable().isEmpty());
+            }
+        }
+        refs[n].deserialize(new DeconstructedGineaPig(null, null));
+        Assert.assertEquals(Arrays.asList(refs), dc.reconstructAvailable());
+    }
+    
+    private static void assertReleased(DeserializationContextImpl dc, String id, Reference<?> outer) {
+        try {
+            if (outer == null) {
+                dc.reference(null, id, null);
+            } else {
+                dc.memberReference(null, null, id, null, outer);
+            }
+            Assert.fail();
+        } catch (ceylon.language.AssertionError e) {
+            Assert.assertEquals("cannot obtain reference to released id: " 
+                    + (outer == null ? id : outer.getId()), e.getMessage());
+        }
+    }
+    
+    /** a -> b, with a released before and b after they're reconstructed */
+    @Test
+    public void testReleased() {
+        @SuppressWarnings("rawtypes")
+        ClassModel cm = null;
+        DeserializationContextImpl dc = new DeserializationContextImpl(true);
+        DeserializingReference<GuineaPig> a = new DeserializingReference<GuineaPig>(null, dc, "a", cm, new GuineaPig("A"));
+        DeserializingReference<GuineaPig> b = new DeserializingReference<GuineaPig>(null, dc, "b", cm, new GuineaPig("B"));
+        dc.register(a);
+        dc.register(b);
+        a.deserialize(new DeconstructedGineaPig(null, b));
+        dc.release("a");
+        // kept until it's reconstructed
+        Assert.assertTrue(dc.containsId("a"));
+        assertReleased(dc, "a", null);
+        
+        b.deserialize(new DeconstructedGineaPig(null, null));
+        Assert.assertEquals(Arrays.asList(a, b), dc.reconstructAvailable());
+        Assert.assertFalse(dc.containsId("a"));
+        Assert.assertTrue(dc.containsId("b"));
+        dc.release("b");
+        Assert.assertFalse(dc.containsId("b"));
+        
+        // forgotten ids can't be made into new references
+        assertReleased(dc, "a", null);
+        assertReleased(dc, "b", null);
+        assertReleased(dc, "c", a);
+        Assert.assertFalse(dc.containsId("c"));
+    }
     
     /** 
      * a -> b(ERROR) -> c
@@ -0,0 +1,102 @@
+package com.redhat.ceylon.compiler.java.runtime.serialization;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import ceylon.language.serialization.SerializableReference;
+
+import com.redhat.ceylon.compiler.java.runtime.model.ReifiedType;
+import com.redhat.ceylon.compiler.java.runtime.model.TypeDescriptor;
+
+public class ForkJoinSerializerTest {
+
+    static class Node implements ReifiedType {
+        final List<Node> children = new ArrayList<Node>();
+        @Override
+        public TypeDescriptor $getType$() {
+            return TypeDescriptor.klass(Node.class);
+        }
+    }
+
+    /** A record of a node: its id, followed by the ids of its children */
+    static class RecordingSerializer extends ForkJoinSerializer<List<List<Object>>> {
+        RecordingSerializer(ForkJoinPool pool, int partitionSize) {
+            super(pool, partitionSize);
+        }
+        @Override
+        protected List<List<Object>> newOutput() {
+            return new ArrayList<List<Object>>();
+        }
+        @Override
+        protected void write(SerializableReference<Object> reference, Walk walk) {
+            List<Object> record = new ArrayList<Object>();
+            record.add(reference.getId());
+            for (Node child : ((Node)reference.instance()).children) {
+                record.add(walk.reference(child));
+            }
+            walk.getOutput().add(record);
+        }
+        @Override
+        protected List<List<Object>> merge(List<List<Object>> first, List<List<Object>> second) {
+            first.addAll(second);
+            return first;
+        }
+    }
+
+    @Test
+    public void testSharedAndCyclic() {
+        // every root shares a child with its neighbours, and the
+        // last one refers back to the first
+        List<Node> roots = new ArrayList<Node>();
+        List<Node> shared = new ArrayList<Node>();
+        for (int i = 0; i < 1000; i++) {
+            roots.add(new Node());
+            shared.add(new Node());
+        }
+        for (int i = 0; i < roots.size(); i++) {
+            Node root = roots.get(i);
+            root.children.add(shared.get(i));
+            root.children.add(shared.get((i + 1) % shared.size()));
+            root.children.add(new Node());
+        }
+        shared.get(0).children.add(roots.get(roots.size() - 1));
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            RecordingSerializer serializer = new RecordingSerializer(pool, 8);
+            List<List<Object>> records = serializer.serialize(roots);
+
+            // every node is written once
+            Assert.assertEquals(3000, records.size());
+            Map<Object, List<Object>> byId = new java.util.HashMap<Object, List<Object>>();
+            for (List<Object> record : records) {
+                Assert.assertNull(byId.put(record.get(0), record));
+            }
+            // with the ids of the nodes it refers to
+            Map<Node, Object> ids = new IdentityHashMap<Node, Object>();
+            for (Node root : roots) {
+                ids.put(root, serializer.getContext().findId(root));
+                for (Node child : root.children) {
+                    ids.put(child, serializer.getContext().findId(child));
+                }
+            }
+            Assert.assertEquals(3000, ids.size());
+            for (Map.Entry<Node, Object> entry : ids.entrySet()) {
+                List<Object> record = byId.get(entry.getValue());
+                List<Node> children = entry.getKey().children;
+                Assert.assertEquals(children.size() + 1, record.size());
+                for (int i = 0; i < children.size(); i++) {
+                    Assert.assertEquals(ids.get(children.get(i)), record.get(i + 1));
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}